@@ -4,13 +4,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDtoChange;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RouteGuards;
 
 import java.util.List;
 import java.util.Map;
@@ -18,15 +21,22 @@ import java.util.Map;
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private final String itemsUrl;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory serverRequestFactory, GatewayResponseCache responseCache,
+                         RequestCoalescer requestCoalescer, RouteGuards routeGuards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache,
+                requestCoalescer,
+                routeGuards.forRoute("bookings")
         );
+        this.itemsUrl = serverUrl + "/items/";
     }
 
     public ResponseEntity<List<BookingDtoResponse>> getBookings(Long userId, BookingState state,
@@ -34,9 +44,10 @@ public class BookingClient extends BaseClient {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "count", false
         );
-        return getPageList("", userId, parameters);
+        return getSliceList("", userId, parameters);
     }
 
     public BookingDtoResponse create(Long userId, BookingDtoChange bookingDtoChange) {
@@ -50,11 +61,16 @@ public class BookingClient extends BaseClient {
         Map<String, Object> queryParams = Map.of("approved", confirmation);
 
         ResponseEntity<Object> response = patch(path, userId, queryParams);
-        return objectMapper.convertValue(response.getBody(), BookingDtoResponse.class);
+        BookingDtoResponse updated = objectMapper.convertValue(response.getBody(), BookingDtoResponse.class);
+        // Подтверждение меняет последнее/следующее бронирование в карточке вещи у владельца
+        if (updated != null && updated.getItem() != null) {
+            evictCachedUrl(itemsUrl + updated.getItem().getId());
+        }
+        return updated;
     }
 
-    public ResponseEntity<BookingDtoResponse> getBooking(Long userId, Long bookingId) {
-        return getObject("/" + bookingId, userId, BookingDtoResponse.class);
+    public ResponseEntity<byte[]> getBooking(Long userId, Long bookingId) {
+        return forward("/" + bookingId, userId, null);
     }
 
     ResponseEntity<List<BookingDtoResponse>> getBookingsForItems(Long userId, BookingState state,
@@ -62,8 +78,27 @@ public class BookingClient extends BaseClient {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
+                "size", size,
+                "count", false
+        );
+        return getSliceList("/owner", userId, parameters);
+    }
+
+    public ResponseEntity<byte[]> scrollBookings(Long userId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size
+        );
+        return forward("", userId, parameters);
+    }
+
+    public ResponseEntity<byte[]> scrollBookingsForItems(Long userId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
                 "size", size
         );
-        return getPageList("/owner", userId, parameters);
+        return forward("/owner", userId, parameters);
     }
-}
\ No newline at end of file
+}
@@ -79,7 +79,7 @@ public class BookingGatewayController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<BookingDtoResponse> foundBooking(
+    public ResponseEntity<byte[]> foundBooking(
             @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
             @Positive(message = "ID должен быть положительным") @PathVariable Long bookingId) {
         log.debug("BookingGatewayController. Получение информации о бронировании с ID {}. Пользователем с ID {}",
@@ -99,4 +99,35 @@ public class BookingGatewayController {
                 .orElseThrow(() -> new DataNotFoundException("Не найден статус: " + stateParam));
         return bookingClient.getBookingsForItems(userId, state, from, size);
     }
-}
\ No newline at end of file
+
+    // Keyset-режим: передан параметр after (пустой - первая страница), ответ содержит nextCursor
+    @GetMapping(params = "after")
+    public ResponseEntity<byte[]> scrollBookingsByUser(
+            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "after") String after,
+            @Positive
+            @Max(value = 100, message = "Размер страницы не может превышать 100")
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new DataNotFoundException("Не найден статус: " + stateParam));
+        log.info("BookingGatewayController. Получение списка бронирований по курсору: state {}, userId={}, after={}",
+                stateParam, userId, after);
+        return bookingClient.scrollBookings(userId, state, after, size);
+    }
+
+    @GetMapping(path = "/owner", params = "after")
+    public ResponseEntity<byte[]> scrollBookingsForItems(
+            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "after") String after,
+            @Positive
+            @Max(value = 100, message = "Размер страницы не может превышать 100")
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("BookingGatewayController. Получение бронирований вещей пользователя с ID {} по курсору {}",
+                userId, after);
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new DataNotFoundException("Не найден статус: " + stateParam));
+        return bookingClient.scrollBookingsForItems(userId, state, after, size);
+    }
+}
@@ -20,6 +20,7 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.shareit.PageResponse;
+import ru.practicum.shareit.SliceResponse;
 import ru.practicum.shareit.exception.CustomApiException;
 import ru.practicum.shareit.exception.NetworkException;
 import ru.practicum.shareit.exception.ServerResponseException;
@@ -27,6 +28,7 @@ import ru.practicum.shareit.exception.ServerResponseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static ru.practicum.shareit.booking.BookingGatewayController.USER_ID;
 
@@ -35,9 +37,19 @@ import static ru.practicum.shareit.booking.BookingGatewayController.USER_ID;
 public class BaseClient {
     protected final RestTemplate rest;
     protected final ObjectMapper objectMapper = new ObjectMapper();
-
-    public BaseClient(RestTemplate rest) {
+    @Nullable
+    private final GatewayResponseCache responseCache;
+    @Nullable
+    private final RequestCoalescer requestCoalescer;
+    @Nullable
+    private final RouteGuard routeGuard;
+
+    public BaseClient(RestTemplate rest, @Nullable GatewayResponseCache responseCache,
+                      @Nullable RequestCoalescer requestCoalescer, @Nullable RouteGuard routeGuard) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.routeGuard = routeGuard;
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
     }
@@ -59,6 +71,114 @@ public class BaseClient {
         }
     }
 
+    // Сквозная передача: байты и статус ответа сервера уходят клиенту без разбора JSON.
+    // Для ответов, содержимое которых шлюзу не нужно
+    protected ResponseEntity<byte[]> forward(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String fullPath = buildPathWithParams(path, parameters);
+        log.info("Сквозной GET запрос: path: {}, userId: {}", fullPath, userId);
+        return passThrough(exchangeBytes(fullPath, defaultHeaders(userId)));
+    }
+
+    // Сквозной GET через кэш ответов шлюза. userSpecific - ответ зависит от X-Sharer-User-Id
+    protected ResponseEntity<byte[]> forwardCached(String path, Long userId,
+                                                   @Nullable Map<String, Object> parameters, boolean userSpecific) {
+        if (responseCache == null || !responseCache.isEnabled()) {
+            return forward(path, userId, parameters);
+        }
+        String fullPath = buildPathWithParams(path, parameters);
+        GatewayResponseCache.Key key = new GatewayResponseCache.Key(resourceUrl(fullPath),
+                userSpecific ? userId : null);
+        GatewayResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            responseCache.recordHit();
+            return cached.toResponse();
+        }
+        responseCache.recordMiss();
+        log.info("Сквозной GET запрос мимо кэша: path: {}, userId: {}", fullPath, userId);
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null && cached.getEtag() != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        ResponseEntity<byte[]> response = exchangeBytes(fullPath, headers);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            return responseCache.revalidated(key, cached, response.getHeaders()).toResponse();
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            responseCache.put(key, response);
+        }
+        return passThrough(response);
+    }
+
+    // Сброс кэшированных ответов ресурса после изменения, проходящего через шлюз
+    protected void evictCached(String path) {
+        if (responseCache != null) {
+            evictCachedUrl(resourceUrl(path));
+        }
+    }
+
+    protected void evictCachedUrl(String url) {
+        if (responseCache != null) {
+            responseCache.invalidate(url);
+        }
+    }
+
+    protected void evictCachedUrlPrefix(String prefix) {
+        if (responseCache != null) {
+            responseCache.invalidatePrefix(prefix);
+        }
+    }
+
+    protected void evictAllCached() {
+        if (responseCache != null) {
+            responseCache.invalidateAll();
+        }
+    }
+
+    private String resourceUrl(String path) {
+        return rest.getUriTemplateHandler().expand(path).toString();
+    }
+
+    private ResponseEntity<byte[]> exchangeBytes(String fullPath, HttpHeaders headers) {
+        if (requestCoalescer == null) {
+            return sendBytes(fullPath, headers);
+        }
+        RequestCoalescer.Key key = new RequestCoalescer.Key(resourceUrl(fullPath), headers.getFirst(USER_ID),
+                headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+        return requestCoalescer.execute(key, () -> sendBytes(fullPath, headers));
+    }
+
+    private ResponseEntity<byte[]> sendBytes(String fullPath, HttpHeaders headers) {
+        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
+        return guarded(() -> {
+            try {
+                return rest.exchange(fullPath, HttpMethod.GET, requestEntity, byte[].class);
+            } catch (HttpStatusCodeException e) {
+                throw new ServerResponseException(e.getResponseBodyAsString(), e.getStatusCode());
+            } catch (ResourceAccessException e) {
+                throw new NetworkException("Ошибка подключения: " + e.getMessage());
+            } catch (Exception e) {
+                throw new RuntimeException("Внутренняя ошибка шлюза", e);
+            }
+        });
+    }
+
+    // Каждое обращение к серверу проходит через bulkhead и circuit breaker своего маршрута
+    private <R> R guarded(Supplier<R> call) {
+        return routeGuard == null ? call.get() : routeGuard.call(call);
+    }
+
+    private ResponseEntity<byte[]> passThrough(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        MediaType contentType = response.getHeaders().getContentType();
+        headers.setContentType(contentType != null ? contentType : MediaType.APPLICATION_JSON);
+        String etag = response.getHeaders().getETag();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
     protected <T> ResponseEntity<List<T>> getList(String path, Map<String, Object> parameters,
                                                   Class<T> responseType) {
         return getList(path, null, parameters, responseType);
@@ -193,18 +313,20 @@ public class BaseClient {
                                                           @Nullable Map<String, Object> parameters,
                                                           @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-        try {
-            if (parameters != null) {
-                return rest.exchange(path, method, requestEntity, Object.class, parameters);
+        return guarded(() -> {
+            try {
+                if (parameters != null) {
+                    return rest.exchange(path, method, requestEntity, Object.class, parameters);
+                }
+                return rest.exchange(path, method, requestEntity, Object.class);
+            } catch (HttpStatusCodeException e) {
+                throw new ServerResponseException(e.getResponseBodyAsString(), e.getStatusCode());
+            } catch (ResourceAccessException e) {
+                throw new NetworkException("Ошибка подключения: " + e.getMessage());
+            } catch (Exception e) {
+                throw new RuntimeException("Внутренняя ошибка шлюза", e);
             }
-            return rest.exchange(path, method, requestEntity, Object.class);
-        } catch (HttpStatusCodeException e) {
-            throw new ServerResponseException(e.getResponseBodyAsString(), e.getStatusCode());
-        } catch (ResourceAccessException e) {
-            throw new NetworkException("Ошибка подключения: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Внутренняя ошибка шлюза", e);
-        }
+        });
     }
 
     private <T, R> ResponseEntity<R> makeAndSendRequest(
@@ -223,15 +345,17 @@ public class BaseClient {
         }
         String fullPath = builder.toUriString();
 
-        try {
-            return rest.exchange(fullPath, method, requestEntity, responseType);
-        } catch (HttpStatusCodeException e) {
-            throw new ServerResponseException(e.getResponseBodyAsString(), e.getStatusCode());
-        } catch (ResourceAccessException e) {
-            throw new NetworkException("Ошибка подключения: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Внутренняя ошибка шлюза", e);
-        }
+        return guarded(() -> {
+            try {
+                return rest.exchange(fullPath, method, requestEntity, responseType);
+            } catch (HttpStatusCodeException e) {
+                throw new ServerResponseException(e.getResponseBodyAsString(), e.getStatusCode());
+            } catch (ResourceAccessException e) {
+                throw new NetworkException("Ошибка подключения: " + e.getMessage());
+            } catch (Exception e) {
+                throw new RuntimeException("Внутренняя ошибка шлюза", e);
+            }
+        });
     }
 
     protected <T> ResponseEntity<List<T>> getPageList(String path, Long userId, Map<String, Object> parameters) {
@@ -258,4 +382,30 @@ public class BaseClient {
             throw new RuntimeException("Внутренняя ошибка шлюза. Content в PageResponse null");
         }
     }
-}
\ No newline at end of file
+
+    // Шлюз отдаёт только содержимое страницы, поэтому у сервера запрашивается Slice без запроса COUNT
+    protected <T> ResponseEntity<List<T>> getSliceList(String path, Long userId, Map<String, Object> parameters) {
+        ResponseEntity<SliceResponse<T>> response = getSlice(path, userId, parameters);
+        return ResponseEntity.ok(response.getBody().getContent());
+    }
+
+    // Ответ keyset-страницы передаётся клиенту целиком: ему нужен nextCursor
+    protected <T> ResponseEntity<SliceResponse<T>> getSlice(String path, Long userId, Map<String, Object> parameters) {
+        ParameterizedTypeReference<SliceResponse<T>> responseTypeRef =
+                new ParameterizedTypeReference<SliceResponse<T>>() {
+                };
+
+        ResponseEntity<SliceResponse<T>> response = makeAndSendRequest(
+                HttpMethod.GET,
+                path,
+                userId,
+                parameters,
+                null,
+                responseTypeRef
+        );
+        if (response.getBody() == null) {
+            throw new RuntimeException("Внутренняя ошибка шлюза: Тело ответа null");
+        }
+        return ResponseEntity.ok(response.getBody());
+    }
+}
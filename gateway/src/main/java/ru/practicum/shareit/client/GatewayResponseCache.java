@@ -0,0 +1,169 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Кэш ответов сервера на GET-запросы шлюза (LRU + TTL), хранит тело ответа байтами.
+// Ключ - полный URL запроса и, для ответов, зависящих от пользователя, X-Sharer-User-Id.
+// Cache-Control сервера: no-store - не кэшировать, no-cache - проверять каждый раз, max-age сокращает TTL.
+// Устаревшая запись с ETag не удаляется, а перепроверяется запросом с If-None-Match.
+@Component
+public class GatewayResponseCache {
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    @Getter
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+
+    public GatewayResponseCache(@Value("${shareit-gateway.cache.enabled:false}") boolean enabled,
+                                @Value("${shareit-gateway.cache.max-size:10000}") int maxSize,
+                                @Value("${shareit-gateway.cache.ttl:PT10S}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("shareit.gateway.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.gateway.cache").tag("result", "miss").register(meterRegistry);
+        this.revalidations = Counter.builder("shareit.gateway.cache").tag("result", "revalidated")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        Gauge.builder("shareit.gateway.cache.size", this, GatewayResponseCache::size).register(meterRegistry);
+    }
+
+    // Запись из кэша, в том числе устаревшая: её ETag нужен для условного запроса
+    public Entry get(Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void put(Key key, ResponseEntity<byte[]> response) {
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.contains("no-store")) {
+            return;
+        }
+        Entry entry = new Entry(response.getStatusCode(), headers.getContentType(), headers.getETag(),
+                response.getBody(), expiresAt(cacheControl));
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    // Сервер ответил 304: тело прежнее, продлеваем срок
+    public Entry revalidated(Key key, Entry entry, HttpHeaders headers) {
+        revalidations.increment();
+        Entry refreshed = new Entry(entry.status, entry.contentType, entry.etag, entry.body,
+                expiresAt(headers.getCacheControl()));
+        synchronized (entries) {
+            entries.put(key, refreshed);
+        }
+        return refreshed;
+    }
+
+    // Удаляет все записи ресурса: для любого пользователя и с любыми параметрами запроса
+    public void invalidate(String url) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.url().equals(url) || key.url().startsWith(url + "?"));
+        }
+    }
+
+    // Удаляет все записи ресурсов, адрес которых начинается с prefix
+    public void invalidatePrefix(String prefix) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.url().startsWith(prefix));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private long expiresAt(String cacheControl) {
+        long ttl = ttlNanos;
+        if (cacheControl != null) {
+            if (cacheControl.contains("no-cache")) {
+                ttl = 0;
+            } else {
+                Matcher matcher = MAX_AGE.matcher(cacheControl);
+                if (matcher.find()) {
+                    ttl = Math.min(ttl, Duration.ofSeconds(Long.parseLong(matcher.group(1))).toNanos());
+                }
+            }
+        }
+        return System.nanoTime() + ttl;
+    }
+
+    public record Key(String url, Long userId) {
+    }
+
+    public static final class Entry {
+        private final HttpStatusCode status;
+        private final MediaType contentType;
+        @Getter
+        private final String etag;
+        private final byte[] body;
+        private final long expiresAt;
+
+        private Entry(HttpStatusCode status, MediaType contentType, String etag, byte[] body, long expiresAt) {
+            this.status = status;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isFresh() {
+            return expiresAt - System.nanoTime() > 0;
+        }
+
+        public ResponseEntity<byte[]> toResponse() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(contentType != null ? contentType : MediaType.APPLICATION_JSON);
+            if (etag != null) {
+                headers.setETag(etag);
+            }
+            return new ResponseEntity<>(body, headers, status);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Объединение одинаковых параллельных GET-запросов к серверу (single-flight): пока первый запрос в работе,
+// остальные с тем же ключом ждут его результат вместо собственного обращения к серверу.
+// Ответ или ошибка первого запроса раздаются всем ожидающим.
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final ConcurrentMap<Key, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter saved;
+
+    public RequestCoalescer(@Value("${shareit-gateway.coalescing.enabled:true}") boolean enabled,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.saved = Counter.builder("shareit.gateway.coalesced.requests")
+                .description("Запросы к серверу, сэкономленные объединением одинаковых GET")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<byte[]> execute(Key key, Supplier<ResponseEntity<byte[]>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<ResponseEntity<byte[]>> own = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            saved.increment();
+            return await(leader);
+        }
+        try {
+            ResponseEntity<byte[]> response = call.get();
+            own.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Одинаковые запросы: тот же URL, тот же пользователь и тот же условный заголовок
+    public record Key(String url, String userId, String ifNoneMatch) {
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.exception.RouteUnavailableException;
+import ru.practicum.shareit.exception.ServerResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Защита одного маршрута к серверу (items, bookings, users, requests).
+// Bulkhead: не более maxConcurrent одновременных запросов, лишние ждут acquireTimeout и получают отказ.
+// Circuit breaker: по последним window вызовам; при доле отказов от failureRateThreshold маршрут
+// отключается на openDuration, затем один пробный запрос решает, включать ли его снова.
+// Отказ - сетевая ошибка, таймаут или 5xx; ответы 4xx считаются успешными.
+// Результат вызова учитывается, только если состояние не менялось с его начала; в HALF_OPEN состояние
+// меняет только пробный вызов. Отклонённые шлюзом запросы получают 503.
+@Slf4j
+public class RouteGuard {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Getter
+    private final String route;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+
+    @Getter
+    private volatile State state = State.CLOSED;
+    private int recorded;
+    private int position;
+    private int failures;
+    private long openUntil;
+    private boolean trialInFlight;
+    // Растёт при каждой смене состояния: по нему отбрасываются результаты вызовов из прошлого состояния
+    private long stateGeneration;
+
+    RouteGuard(String route, int maxConcurrent, Duration acquireTimeout, int window, int minimumCalls,
+               double failureRateThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.permits = new Semaphore(maxConcurrent);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.outcomes = new boolean[window];
+        this.minimumCalls = Math.min(minimumCalls, window);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.bulkheadRejections = Counter.builder("shareit.gateway.route.rejected")
+                .tag("route", route).tag("reason", "bulkhead").register(meterRegistry);
+        this.circuitRejections = Counter.builder("shareit.gateway.route.rejected")
+                .tag("route", route).tag("reason", "circuit").register(meterRegistry);
+        Gauge.builder("shareit.gateway.route.in-flight", permits, p -> maxConcurrent - p.availablePermits())
+                .tag("route", route).register(meterRegistry);
+        Gauge.builder("shareit.gateway.route.circuit.open", this, g -> g.getState() == State.CLOSED ? 0 : 1)
+                .tag("route", route).register(meterRegistry);
+    }
+
+    public <R> R call(Supplier<R> request) {
+        Admission admission = tryEnterCircuit();
+        if (admission == null) {
+            circuitRejections.increment();
+            throw new RouteUnavailableException("Сервер не отвечает, запросы к " + route + " временно отклоняются");
+        }
+        if (!tryAcquirePermit()) {
+            releaseTrial(admission);
+            bulkheadRejections.increment();
+            throw new RouteUnavailableException("Слишком много одновременных запросов к " + route);
+        }
+        try {
+            R result = request.get();
+            onSuccess(admission);
+            return result;
+        } catch (ServerResponseException e) {
+            if (e.getStatus().is5xxServerError()) {
+                onFailure(admission);
+            } else {
+                onSuccess(admission);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            onFailure(admission);
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean tryAcquirePermit() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // null - запрос отклонён
+    private synchronized Admission tryEnterCircuit() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntil < 0) {
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return null;
+            }
+            trialInFlight = true;
+            return new Admission(true, stateGeneration);
+        }
+        return new Admission(false, stateGeneration);
+    }
+
+    private synchronized void releaseTrial(Admission admission) {
+        if (admission.trial() && admission.generation() == stateGeneration) {
+            trialInFlight = false;
+        }
+    }
+
+    private synchronized void onSuccess(Admission admission) {
+        if (admission.generation() != stateGeneration) {
+            return;
+        }
+        if (admission.trial()) {
+            log.info("Маршрут {} снова доступен", route);
+            transitionTo(State.CLOSED);
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure(Admission admission) {
+        if (admission.generation() != stateGeneration) {
+            return;
+        }
+        if (admission.trial()) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+    }
+
+    private void open() {
+        log.warn("Маршрут {} отключён на {} мс", route, TimeUnit.NANOSECONDS.toMillis(openDurationNanos));
+        transitionTo(State.OPEN);
+        openUntil = System.nanoTime() + openDurationNanos;
+        trialInFlight = false;
+        reset();
+    }
+
+    private void reset() {
+        recorded = 0;
+        position = 0;
+        failures = 0;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        stateGeneration++;
+    }
+
+    // Допуск вызова: пробный ли он и в каком состоянии начался
+    private record Admission(boolean trial, long generation) {
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Создаёт RouteGuard для маршрута. Настройки берутся из shareit-gateway.routes.<route>.*,
+// при их отсутствии - из общих shareit-gateway.routes.default.*
+@Component
+@RequiredArgsConstructor
+public class RouteGuards {
+    private static final String PREFIX = "shareit-gateway.routes.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public RouteGuard forRoute(String route) {
+        return new RouteGuard(route,
+                property(route, "max-concurrent", Integer.class, 200),
+                property(route, "acquire-timeout", Duration.class, Duration.ofMillis(500)),
+                property(route, "circuit.window", Integer.class, 50),
+                property(route, "circuit.minimum-calls", Integer.class, 20),
+                property(route, "circuit.failure-rate-threshold", Double.class, 0.5),
+                property(route, "circuit.open-duration", Duration.class, Duration.ofSeconds(10)),
+                meterRegistry);
+    }
+
+    private <T> T property(String route, String name, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty(PREFIX + "default." + name, type, defaultValue);
+        return environment.getProperty(PREFIX + route + "." + name, type, fallback);
+    }
+}
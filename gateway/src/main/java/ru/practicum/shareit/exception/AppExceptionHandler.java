@@ -105,6 +105,13 @@ public class AppExceptionHandler {
                 .body(new Response("Ошибка сервера", ex.getMessage()));
     }
 
+    @ExceptionHandler(RouteUnavailableException.class)
+    public ResponseEntity<Response> handleRouteUnavailableException(RouteUnavailableException ex) {
+        log.warn("Запрос отклонён шлюзом: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new Response("Сервис временно недоступен", ex.getMessage()));
+    }
+
     @ExceptionHandler(NetworkException.class)
     public ResponseEntity<Response> handleNetworkException(NetworkException ex) {
         log.error("Сетевая ошибка: {}", ex.getMessage());
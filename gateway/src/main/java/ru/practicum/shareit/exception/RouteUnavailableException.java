@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+// Шлюз сам отклонил запрос к маршруту (circuit breaker открыт или bulkhead переполнен), сервер не вызывался
+public class RouteUnavailableException extends RuntimeException {
+    public RouteUnavailableException(String message) {
+        super(message);
+    }
+}
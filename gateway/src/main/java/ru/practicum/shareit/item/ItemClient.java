@@ -4,40 +4,53 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RouteGuards;
 import ru.practicum.shareit.comment.dto.CommentDtoChange;
 import ru.practicum.shareit.comment.dto.CommentDtoResponse;
 import ru.practicum.shareit.exception.ApiOperationException;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
-import ru.practicum.shareit.item.dto.ItemDtoShort;
-import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
 
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private final String requestsUrl;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, GatewayResponseCache responseCache,
+                      RequestCoalescer requestCoalescer, RouteGuards routeGuards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache,
+                requestCoalescer,
+                routeGuards.forRoute("items")
         );
+        this.requestsUrl = serverUrl + "/requests";
     }
 
     public ItemDtoResponse create(Long userId, ItemDtoChange itemDtoChange) {
         ResponseEntity<Object> response = post("", userId, itemDtoChange);
 
         if (response.getStatusCode().is2xxSuccessful()) {
+            // Вещь в ответ на запрос попадает в его список items
+            if (itemDtoChange.getRequestId() != null) {
+                evictCachedUrl(requestsUrl + "/all");
+                evictCachedUrl(requestsUrl + "/" + itemDtoChange.getRequestId());
+            }
             return objectMapper.convertValue(response.getBody(), ItemDtoResponse.class);
         } else {
             if (response.getBody() instanceof byte[]) {
@@ -53,24 +66,44 @@ public class ItemClient extends BaseClient {
 
         String path = "/" + itemId;
         ResponseEntity<Object> response = patch(path, userId, itemDtoChange);
-        return objectMapper.convertValue(response.getBody(), ItemDtoResponse.class);
+        evictCached(path);
+        ItemDtoResponse updated = objectMapper.convertValue(response.getBody(), ItemDtoResponse.class);
+        // Название и доступность вещи-ответа выводятся в списке items на страницах /requests/all
+        if (updated != null && updated.getRequestId() != null) {
+            evictCachedUrl(requestsUrl + "/all");
+        }
+        return updated;
+    }
+
+    public ResponseEntity<byte[]> getItemById(Long userId, Long itemId) {
+        // Карточка зависит от пользователя: владельцу добавляются бронирования
+        return forwardCached("/" + itemId, userId, null, true);
     }
 
-    public ResponseEntity<ItemDtoWithDetails> getItemById(Long userId, Long itemId) {
-        return getObject("/" + itemId, userId, ItemDtoWithDetails.class);
+    public ResponseEntity<byte[]> getItemsByOwner(Long userId) {
+        return forward("", userId, null);
     }
 
-    public ResponseEntity<List<ItemDtoShort>> getItemsByOwner(Long userId) {
-        return getList("", userId, ItemDtoShort.class);
+    public ResponseEntity<byte[]> searchItems(Long userId, String text, Integer from, Integer size) {
+        Map<String, Object> queryParams = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return forward("/search", userId, queryParams);
     }
 
-    public ResponseEntity<List<ItemDtoResponse>> searchItems(Long userId, String text) {
-        Map<String, Object> queryParams = Map.of("text", text);
-        return getList("/search", userId, queryParams, ItemDtoResponse.class);
+    public ResponseEntity<byte[]> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> queryParams = Map.of(
+                "from", from,
+                "to", to
+        );
+        return forward("/" + itemId + "/availability", userId, queryParams);
     }
 
     public CommentDtoResponse createComment(Long itemId, Long userId, CommentDtoChange commentDtoChange) {
         ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDtoChange);
+        evictCached("/" + itemId);
         return objectMapper.convertValue(response.getBody(), CommentDtoResponse.class);
     }
 }
\ No newline at end of file
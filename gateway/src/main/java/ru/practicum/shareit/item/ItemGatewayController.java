@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -18,15 +21,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import ru.practicum.shareit.comment.dto.CommentDtoChange;
 import ru.practicum.shareit.comment.dto.CommentDtoResponse;
+import ru.practicum.shareit.exception.BadInputException;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
-import ru.practicum.shareit.item.dto.ItemDtoShort;
-import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
 import ru.practicum.shareit.validate.OnCreate;
 import ru.practicum.shareit.validate.OnUpdate;
 
 import java.net.URI;
-import java.util.List;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.booking.BookingGatewayController.USER_ID;
 
@@ -65,7 +67,7 @@ public class ItemGatewayController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemDtoWithDetails> foundItem(
+    public ResponseEntity<byte[]> foundItem(
             @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
             @Positive(message = "ID должен быть положительным") @PathVariable Long itemId) {
         log.debug("ItemGatewayController. Получение вещи с ID {}. Пользователем с ID {}", itemId, userId);
@@ -74,18 +76,36 @@ public class ItemGatewayController {
 
     // Просмотр владельцем списка всех его вещей, с указанием названия и описания для каждой из них
     @GetMapping
-    public ResponseEntity<List<ItemDtoShort>> getItemsByOwner(
+    public ResponseEntity<byte[]> getItemsByOwner(
             @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId) {
         log.debug("ItemGatewayController. Получение всех его вещей, пользователем с ID {}", userId);
         return itemClient.getItemsByOwner(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDtoResponse>> searchItems(
+    public ResponseEntity<byte[]> searchItems(
             @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
-            @RequestParam String text) {
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+            @Positive
+            @Max(value = 100, message = "Размер страницы не может превышать 100")
+            @RequestParam(name = "size", required = false, defaultValue = "100") Integer size) {
         log.debug("ItemGatewayController. Поиск вещи по запросу {}, пользователем с ID {}", text, userId);
-        return itemClient.searchItems(userId, text);
+        return itemClient.searchItems(userId, text, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<byte[]> getAvailability(
+            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
+            @Positive(message = "ID должен быть положительным") @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("ItemGatewayController. Календарь доступности вещи с ID {} с {} по {}, пользователем с ID {}",
+                itemId, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new BadInputException("Начало периода должно быть раньше его окончания");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -4,14 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RouteGuards;
 import ru.practicum.shareit.request.dto.ItemRequestDtoChange;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,33 +22,56 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory serverRequestFactory, GatewayResponseCache responseCache,
+                             RequestCoalescer requestCoalescer, RouteGuards routeGuards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache,
+                requestCoalescer,
+                routeGuards.forRoute("requests")
         );
     }
 
     public ItemRequestDtoResponse create(Long userId, ItemRequestDtoChange itemRequestDtoChange) {
         ResponseEntity<Object> response = post("", userId, itemRequestDtoChange);
+        evictCached("/all");
         return objectMapper.convertValue(response.getBody(), ItemRequestDtoResponse.class);
     }
 
-    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsByOwner(Long userId) {
-        return getList("", userId, ItemRequestDtoResponse.class);
+    public ResponseEntity<byte[]> getRequestsByOwner(Long userId, Integer from, Integer size) {
+        // Без size сервер возвращает все запросы пользователя, null-параметры в URI не попадают
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        return forward("", userId, parameters);
     }
 
-    public ResponseEntity<List<ItemRequestDtoResponse>> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<byte[]> getAllRequests(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return getList("/all", userId, parameters, ItemRequestDtoResponse.class);
+        // Сервер отдаёт одну и ту же страницу всем пользователям, X-Sharer-User-Id в ключ кэша не входит
+        return forwardCached("/all", userId, parameters, false);
     }
 
-    public ResponseEntity<ItemRequestDtoResponse> getRequestById(Long userId, Long requestId) {
-        return getObject("/" + requestId, userId, ItemRequestDtoResponse.class);
+    public ResponseEntity<byte[]> scrollAllRequests(Long userId, String before, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "before", before,
+                "size", size
+        );
+        return forward("/all", userId, parameters);
+    }
+
+    public ResponseEntity<byte[]> getRequestById(Long userId, Long requestId) {
+        return forward("/" + requestId, userId, null);
+    }
+
+    public ResponseEntity<byte[]> getSuggestions(Long userId, Long requestId) {
+        return forward("/" + requestId + "/suggestions", userId, null);
     }
 }
\ No newline at end of file
@@ -22,7 +22,6 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.validate.OnCreate;
 
 import java.net.URI;
-import java.util.List;
 
 import static ru.practicum.shareit.booking.BookingGatewayController.USER_ID;
 
@@ -51,14 +50,18 @@ public class ItemRequestGatewayController {
 
     // Метод позволяет получить список своих запросов вместе с данными об ответах на них
     @GetMapping
-    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsByOwner(
-            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId) {
+    public ResponseEntity<byte[]> getRequestsByOwner(
+            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
+            @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+            @Max(value = 100, message = "Размер страницы не может превышать 100")
+            @Positive
+            @RequestParam(name = "size", required = false) Integer size) {
         log.debug("ItemRequestGatewayController. Получение его запросов, пользователем с ID {}", userId);
-        return itemRequestClient.getRequestsByOwner(userId);
+        return itemRequestClient.getRequestsByOwner(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ItemRequestDtoResponse>> getAllRequests(
+    public ResponseEntity<byte[]> getAllRequests(
             @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
             @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
             @Max(value = 100, message = "Размер страницы не может превышать 100")
@@ -68,12 +71,35 @@ public class ItemRequestGatewayController {
         return itemRequestClient.getAllRequests(userId, from, size);
     }
 
+    // Keyset-лента: передан параметр before (пустой - самые новые запросы), ответ содержит nextCursor
+    @GetMapping(path = "/all", params = "before")
+    public ResponseEntity<byte[]> scrollAllRequests(
+            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "before") String before,
+            @Max(value = 100, message = "Размер страницы не может превышать 100")
+            @Positive
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("ItemRequestGatewayController. Получение ленты запросов до курсора {}, пользователем с ID {}",
+                before, userId);
+        return itemRequestClient.scrollAllRequests(userId, before, size);
+    }
+
     @GetMapping("/{requestId}")
-    public ResponseEntity<ItemRequestDtoResponse> foundRequest(
+    public ResponseEntity<byte[]> foundRequest(
             @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
             @Positive(message = "ID должен быть положительным") @PathVariable Long requestId) {
         log.debug("ItemRequestGatewayController. Получение запроса с ID {}. Пользователем с ID {}",
                 requestId, userId);
         return itemRequestClient.getRequestById(userId, requestId);
     }
+
+    // Вещи, подобранные к своему запросу по совпадению терминов описания
+    @GetMapping("/{requestId}/suggestions")
+    public ResponseEntity<byte[]> getSuggestions(
+            @Positive(message = "ID должен быть положительным") @RequestHeader(USER_ID) Long userId,
+            @Positive(message = "ID должен быть положительным") @PathVariable Long requestId) {
+        log.debug("ItemRequestGatewayController. Получение подобранных вещей для запроса с ID {}. Пользователем с ID {}",
+                requestId, userId);
+        return itemRequestClient.getSuggestions(userId, requestId);
+    }
 }
\ No newline at end of file
@@ -4,28 +4,37 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RouteGuards;
 import ru.practicum.shareit.user.dto.UserDtoChange;
 import ru.practicum.shareit.user.dto.UserDtoResponse;
 
-import java.util.List;
 import java.util.Map;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    private final String itemsUrl;
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, GatewayResponseCache responseCache,
+                      RequestCoalescer requestCoalescer, RouteGuards routeGuards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache,
+                requestCoalescer,
+                routeGuards.forRoute("users")
         );
+        this.itemsUrl = serverUrl + "/items";
     }
 
     public UserDtoResponse create(UserDtoChange userDtoChange) {
@@ -37,23 +46,28 @@ public class UserClient extends BaseClient {
 
         String path = "/" + userId;
         ResponseEntity<Object> response = patch(path, userId, userDtoChange);
+        evictCached(path);
+        // Имя пользователя выводится как автор отзывов в карточках вещей
+        evictCachedUrlPrefix(itemsUrl + "/");
         return objectMapper.convertValue(response.getBody(), UserDtoResponse.class);
     }
 
-    public ResponseEntity<List<UserDtoResponse>> getAll(Integer from, Integer size) {
+    public ResponseEntity<byte[]> getAll(Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return getList("", parameters, UserDtoResponse.class);
+        return forward("", null, parameters);
     }
 
-    public ResponseEntity<UserDtoResponse> getUserById(Long id) {
-        return getObject("/" + id, id, UserDtoResponse.class);
+    public ResponseEntity<byte[]> getUserById(Long id) {
+        return forwardCached("/" + id, id, null, false);
     }
 
     public void deleteUser(Long id) {
         String path = "/" + id;
         delete(path);
+        // Вместе с пользователем каскадно удаляются его вещи, запросы и бронирования
+        evictAllCached();
     }
 }
\ No newline at end of file
@@ -25,7 +25,6 @@ import ru.practicum.shareit.validate.OnCreate;
 import ru.practicum.shareit.validate.OnUpdate;
 
 import java.net.URI;
-import java.util.List;
 
 @Slf4j
 @Controller
@@ -59,7 +58,7 @@ public class UserGatewayController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDtoResponse>> getAllUsers(
+    public ResponseEntity<byte[]> getAllUsers(
             @PositiveOrZero
             @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
             @Positive
@@ -70,7 +69,7 @@ public class UserGatewayController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDtoResponse> getUser(
+    public ResponseEntity<byte[]> getUser(
             @PathVariable @Positive(message = "Id должен быть больше 0") Long id) {
         log.debug("UserGatewayController. Начато получение пользователя по ID. Получен id {}", id);
         return userClient.getUserById(id);
@@ -0,0 +1,119 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GatewayResponseCacheTest {
+    private static final GatewayResponseCache.Key KEY = new GatewayResponseCache.Key("http://server/items/1", 1L);
+
+    @Test
+    void get_afterTtl_keepsStaleEntryForRevalidation() throws InterruptedException {
+        GatewayResponseCache cache = cache(Duration.ofMillis(50));
+        cache.put(KEY, response(null));
+
+        assertThat(cache.get(KEY).isFresh()).isTrue();
+        Thread.sleep(70);
+        assertThat(cache.get(KEY)).isNotNull();
+        assertThat(cache.get(KEY).isFresh()).isFalse();
+        assertThat(cache.get(KEY).getEtag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void put_whenMaxAgeShorterThanTtl_usesMaxAge() {
+        GatewayResponseCache cache = cache(Duration.ofMinutes(10));
+        cache.put(KEY, response("max-age=0"));
+
+        assertThat(cache.get(KEY).isFresh()).isFalse();
+    }
+
+    @Test
+    void put_whenNoStore_doesNotCache() {
+        GatewayResponseCache cache = cache(Duration.ofMinutes(10));
+        cache.put(KEY, response("no-store"));
+
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    void invalidatePrefix_removesItemCardsOfAllUsersOnly() {
+        GatewayResponseCache cache = cache(Duration.ofMinutes(10));
+        GatewayResponseCache.Key otherUser = new GatewayResponseCache.Key("http://server/items/2", 2L);
+        GatewayResponseCache.Key user = new GatewayResponseCache.Key("http://server/users/1", 1L);
+        cache.put(KEY, response(null));
+        cache.put(otherUser, response(null));
+        cache.put(user, response(null));
+
+        cache.invalidatePrefix("http://server/items/");
+
+        assertThat(cache.get(KEY)).isNull();
+        assertThat(cache.get(otherUser)).isNull();
+        assertThat(cache.get(user)).isNotNull();
+    }
+
+    @Test
+    void forwardCached_whenStale_revalidatesWithIfNoneMatch() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        TestClient client = new TestClient(rest, cache(Duration.ofMinutes(10)));
+
+        server.expect(requestTo("http://server/items/1")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=0"));
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"v1\""));
+
+        client.get("/1", 1L);
+        ResponseEntity<byte[]> revalidated = client.get("/1", 1L);
+
+        server.verify();
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String(revalidated.getBody())).isEqualTo("{\"id\":1}");
+        assertThat(revalidated.getHeaders().getETag()).isEqualTo("\"v1\"");
+    }
+
+    private static GatewayResponseCache cache(Duration ttl) {
+        return new GatewayResponseCache(true, 100, ttl, new SimpleMeterRegistry());
+    }
+
+    private static ResponseEntity<byte[]> response(String cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("\"v1\"");
+        if (cacheControl != null) {
+            builder.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return builder.body("{}".getBytes());
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, GatewayResponseCache cache) {
+            super(rest, cache, null, null);
+        }
+
+        ResponseEntity<byte[]> get(String path, Long userId) {
+            return forwardCached(path, userId, null, true);
+        }
+    }
+}
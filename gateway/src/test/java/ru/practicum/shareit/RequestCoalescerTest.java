@@ -0,0 +1,104 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.exception.NetworkException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+    private static final RequestCoalescer.Key KEY = new RequestCoalescer.Key("http://server/items/1", "1", null);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(true, meterRegistry);
+    }
+
+    @Test
+    void execute_whenSameRequestInFlight_sharesLeaderResponse() throws Exception {
+        ResponseEntity<byte[]> response = ResponseEntity.ok("{}".getBytes());
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<ResponseEntity<byte[]>>[] results = runLeaderAndFollower(() -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        assertThat(results[0].get(5, TimeUnit.SECONDS)).isSameAs(response);
+        assertThat(results[1].get(5, TimeUnit.SECONDS)).isSameAs(response);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void execute_whenLeaderFails_sharesErrorWithFollower() throws Exception {
+        NetworkException error = new NetworkException("Нет соединения");
+
+        CompletableFuture<ResponseEntity<byte[]>>[] results = runLeaderAndFollower(() -> {
+            throw error;
+        });
+
+        for (CompletableFuture<ResponseEntity<byte[]>> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseReference(error);
+        }
+    }
+
+    @Test
+    void execute_afterLeaderCompletes_callsServerAgain() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute(KEY, () -> ResponseEntity.ok(new byte[]{(byte) calls.incrementAndGet()}));
+        coalescer.execute(KEY, () -> ResponseEntity.ok(new byte[]{(byte) calls.incrementAndGet()}));
+
+        assertThat(calls).hasValue(2);
+    }
+
+    // Ведущий запрос держится, пока ведомый не присоединится к нему (счётчик сэкономленных запросов)
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<ResponseEntity<byte[]>>[] runLeaderAndFollower(
+            Supplier<ResponseEntity<byte[]>> server) throws InterruptedException {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<byte[]>> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.execute(KEY, () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    return server.get();
+                }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<ResponseEntity<byte[]>> follower = CompletableFuture.supplyAsync(() ->
+                coalescer.execute(KEY, server));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("shareit.gateway.coalesced.requests").count() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        return new CompletableFuture[]{leader, follower};
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import ru.practicum.shareit.client.RouteGuard;
+import ru.practicum.shareit.client.RouteGuards;
+import ru.practicum.shareit.exception.NetworkException;
+import ru.practicum.shareit.exception.RouteUnavailableException;
+import ru.practicum.shareit.exception.ServerResponseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteGuardTest {
+    private static final long OPEN_MILLIS = 100;
+
+    private RouteGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit-gateway.routes.default.max-concurrent", "4")
+                .withProperty("shareit-gateway.routes.default.circuit.window", "4")
+                .withProperty("shareit-gateway.routes.default.circuit.minimum-calls", "2")
+                .withProperty("shareit-gateway.routes.default.circuit.failure-rate-threshold", "0.5")
+                .withProperty("shareit-gateway.routes.default.circuit.open-duration", OPEN_MILLIS + "ms");
+        // Как в приложении: Spring Boot разбирает Duration вида 100ms
+        environment.setConversionService(new ApplicationConversionService());
+        guard = new RouteGuards(environment, new SimpleMeterRegistry()).forRoute("items");
+    }
+
+    @Test
+    void call_whenFailureRateReached_opensCircuitAndRejectsWithoutCallingServer() {
+        failTwice();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(guard.getState()).isEqualTo(RouteGuard.State.OPEN);
+        assertThatThrownBy(() -> guard.call(calls::incrementAndGet))
+                .isInstanceOf(RouteUnavailableException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void call_whenClientErrors_keepsCircuitClosed() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(() -> {
+                throw new ServerResponseException("Не найдено", HttpStatus.NOT_FOUND);
+            })).isInstanceOf(ServerResponseException.class);
+        }
+
+        assertThat(guard.getState()).isEqualTo(RouteGuard.State.CLOSED);
+    }
+
+    @Test
+    void call_afterOpenDuration_trialSuccessClosesCircuit() throws InterruptedException {
+        failTwice();
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+        assertThat(guard.getState()).isEqualTo(RouteGuard.State.CLOSED);
+    }
+
+    @Test
+    void call_afterOpenDuration_trialFailureReopensCircuit() throws InterruptedException {
+        failTwice();
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertThatThrownBy(() -> guard.call(() -> {
+            throw new NetworkException("Нет соединения");
+        })).isInstanceOf(NetworkException.class);
+        assertThat(guard.getState()).isEqualTo(RouteGuard.State.OPEN);
+    }
+
+    @Test
+    void call_whenStartedBeforeOpening_doesNotCloseHalfOpenCircuit() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> guard.call(() -> {
+            slowStarted.countDown();
+            await(releaseSlow);
+            return "slow";
+        }));
+        assertThat(slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        failTwice();
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        CountDownLatch trialStarted = new CountDownLatch(1);
+        CountDownLatch releaseTrial = new CountDownLatch(1);
+        CompletableFuture<String> trial = CompletableFuture.supplyAsync(() -> guard.call(() -> {
+            trialStarted.countDown();
+            await(releaseTrial);
+            return "trial";
+        }));
+        assertThat(trialStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Успех вызова из прошлого состояния не закрывает цепь, пока пробный вызов в работе
+        releaseSlow.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(guard.getState()).isEqualTo(RouteGuard.State.HALF_OPEN);
+        assertThatThrownBy(() -> guard.call(() -> "extra")).isInstanceOf(RouteUnavailableException.class);
+
+        releaseTrial.countDown();
+        assertThat(trial.get(5, TimeUnit.SECONDS)).isEqualTo("trial");
+        assertThat(guard.getState()).isEqualTo(RouteGuard.State.CLOSED);
+    }
+
+    private void failTwice() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.call(() -> {
+                throw new ServerResponseException("Ошибка", HttpStatus.INTERNAL_SERVER_ERROR);
+            })).isInstanceOf(ServerResponseException.class);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
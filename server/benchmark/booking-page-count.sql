@@ -0,0 +1,50 @@
+-- Стоимость страницы бронирований: Page (выборка + COUNT по тому же условию) против Slice (выборка size + 1 строки).
+-- Запуск: psql -v rows=100000 -f booking-page-count.sql shareit
+-- Повторить для rows = 10000, 100000, 1000000. Скрипт работает в отдельной схеме и не трогает данные.
+
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS bench_booking CASCADE;
+CREATE SCHEMA bench_booking;
+SET search_path = bench_booking, public;
+
+CREATE TABLE booking (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_lease TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_lease TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL
+);
+
+-- Один активный арендатор (booker_id = 1) и фон из остальных пользователей
+INSERT INTO booking (start_lease, end_lease, item_id, booker_id, status)
+SELECT now() - (g || ' hours')::INTERVAL,
+       now() - (g || ' hours')::INTERVAL + INTERVAL '1 day',
+       1 + g % 1000,
+       CASE WHEN g % 4 = 0 THEN 1 ELSE 2 + g % 5000 END,
+       (ARRAY['WAITING', 'APPROVED', 'REJECTED'])[1 + g % 3]
+FROM generate_series(1, :rows) AS g;
+CREATE INDEX idx_booking_booker_start_id ON booking (booker_id, start_lease DESC, id DESC);
+ANALYZE booking;
+
+\echo '--- Page: выборка страницы'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM booking b WHERE b.booker_id = 1
+ORDER BY b.start_lease DESC OFFSET 20 LIMIT 10;
+
+\echo '--- Page: дополнительный COUNT'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(b.id) FROM booking b WHERE b.booker_id = 1;
+
+\echo '--- Slice (count=false): одна выборка на size + 1 строку'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM booking b WHERE b.booker_id = 1
+ORDER BY b.start_lease DESC OFFSET 20 LIMIT 11;
+
+\echo '--- Page, состояние PAST: COUNT проходит всю историю арендатора'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(b.id) FROM booking b WHERE b.booker_id = 1 AND b.end_lease < now();
+
+DROP SCHEMA bench_booking CASCADE;
@@ -0,0 +1,49 @@
+-- Сравнение поиска подстроки: LIKE без индекса против триграммных GIN-индексов (pg_trgm).
+-- Запуск: psql -v rows=100000 -f item-search-trigram.sql shareit
+-- Повторить для rows = 10000, 100000, 1000000. Скрипт работает в отдельной схеме и не трогает данные.
+
+\set ON_ERROR_STOP on
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP SCHEMA IF EXISTS bench_search CASCADE;
+CREATE SCHEMA bench_search;
+SET search_path = bench_search, public;
+
+CREATE TABLE items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    available BOOLEAN NOT NULL DEFAULT TRUE
+);
+
+INSERT INTO items (name, description, available)
+SELECT (ARRAY['Дрель', 'Перфоратор', 'Шуруповерт', 'Лестница', 'Палатка', 'Велосипед'])[1 + g % 6] || ' ' || md5(g::text),
+       'Описание ' || md5((g * 7)::text) || ' ' || (ARRAY['аккумуляторная', 'ударная', 'складная'])[1 + g % 3],
+       g % 10 <> 0
+FROM generate_series(1, :rows) AS g;
+ANALYZE items;
+
+\echo '--- LIKE, последовательное сканирование'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.available = TRUE
+  AND (LOWER(i.name) LIKE '%дрел%' OR LOWER(i.description) LIKE '%дрел%');
+
+CREATE INDEX idx_items_name_trgm ON items USING GIN (LOWER(name) gin_trgm_ops) WHERE available = TRUE;
+CREATE INDEX idx_items_description_trgm ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE available = TRUE;
+ANALYZE items;
+
+\echo '--- LIKE по триграммным индексам'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.available = TRUE
+  AND (LOWER(i.name) LIKE '%дрел%' OR LOWER(i.description) LIKE '%дрел%');
+
+\echo '--- Редкая подстрока по триграммным индексам'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.available = TRUE
+  AND (LOWER(i.name) LIKE '%a1b2%' OR LOWER(i.description) LIKE '%a1b2%');
+
+DROP SCHEMA bench_search CASCADE;
@@ -0,0 +1,82 @@
+-- Свои запросы пользователя с вещами-ответами: DISTINCT + LEFT JOIN FETCH против двух выборок
+-- (страница запросов, затем вещи по id запросов).
+-- Запуск: psql -v requests=1000 -v items=20 -f own-requests-items.sql shareit
+-- Скрипт работает в отдельной схеме и не трогает данные.
+
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS bench_requests CASCADE;
+CREATE SCHEMA bench_requests;
+SET search_path = bench_requests, public;
+
+CREATE TABLE requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description TEXT NOT NULL,
+    requestor_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    available BOOLEAN NOT NULL DEFAULT TRUE,
+    version BIGINT NOT NULL DEFAULT 0,
+    owner_id BIGINT,
+    request_id BIGINT
+);
+
+-- Активный автор запросов (requestor_id = 1) и фон из запросов остальных пользователей
+INSERT INTO requests (description, requestor_id, created)
+SELECT 'Нужна вещь ' || g,
+       CASE WHEN g <= :requests THEN 1 ELSE 2 + g % 5000 END,
+       now() - (g || ' minutes')::INTERVAL
+FROM generate_series(1, :requests * 10) AS g;
+
+-- На каждый запрос :items ответов с описанием обычной длины
+INSERT INTO items (name, description, owner_id, request_id)
+SELECT 'Вещь ' || r.id || '-' || n,
+       repeat('Описание вещи в ответ на запрос. ', 5),
+       2 + n,
+       r.id
+FROM requests r, generate_series(1, :items) AS n;
+
+CREATE INDEX idx_requests_requestor_id ON requests (requestor_id);
+CREATE INDEX idx_requests_requestor_created ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX idx_items_request_id ON items (request_id);
+ANALYZE requests;
+ANALYZE items;
+
+\echo '--- Было: DISTINCT по строкам join, requests x items строк на сортировку и дедупликацию'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT r.id, r.description, r.requestor_id, r.created, r.version,
+       i.id, i.name, i.description, i.available, i.version, i.owner_id, i.request_id
+FROM requests r
+LEFT JOIN items i ON i.request_id = r.id
+WHERE r.requestor_id = 1
+ORDER BY r.created DESC;
+
+\echo '--- Стало, без size: все запросы пользователя'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM requests r WHERE r.requestor_id = 1
+ORDER BY r.created DESC, r.id DESC;
+
+\echo '--- Стало, без size: вещи по id запросов'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.request_id IN (SELECT r.id FROM requests r WHERE r.requestor_id = 1);
+
+\echo '--- Стало, size=10: страница запросов'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM requests r WHERE r.requestor_id = 1
+ORDER BY r.created DESC, r.id DESC OFFSET 0 LIMIT 10;
+
+\echo '--- Стало, size=10: вещи только этой страницы'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.request_id IN (SELECT r.id FROM requests r WHERE r.requestor_id = 1
+                       ORDER BY r.created DESC, r.id DESC LIMIT 10);
+
+DROP SCHEMA bench_requests CASCADE;
@@ -0,0 +1,37 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Слушатель JPA для версионируемых сущностей: превращает записи в БД в EntityChangedEvent.
+// Экземпляр создаёт Spring (SpringBeanContainer Hibernate), поэтому зависимости внедряются как обычно
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        publish(entity, EntityChangedEvent.Kind.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        publish(entity, EntityChangedEvent.Kind.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        publish(entity, EntityChangedEvent.Kind.DELETED);
+    }
+
+    private void publish(Object entity, EntityChangedEvent.Kind kind) {
+        Versioned versioned = (Versioned) entity;
+        eventPublisher.publishEvent(new EntityChangedEvent(entity.getClass(), versioned.getId(),
+                versioned.getVersion(), kind));
+    }
+}
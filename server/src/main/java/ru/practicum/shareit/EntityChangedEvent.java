@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// Событие ленты изменений: сущность создана, изменена или удалена и получила указанную версию.
+// Публикуется синхронно при flush; кэшам, которым важен коммит, нужна TransactionSynchronization
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class EntityChangedEvent {
+    private final Class<?> entityType;
+    private final Long id;
+    private final Long version;
+    private final Kind kind;
+
+    public boolean isAbout(Class<?> type) {
+        return entityType == type;
+    }
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+// ETag для ответов GET - SHA-256 от частей ответа, 32-битный хеш давал бы совпадения у разных версий.
+// Одиночные ресурсы получают сильный ETag из id и версии сущности (@Version); списки строятся
+// из содержимого DTO (toString от Lombok) и помечаются слабыми.
+// Сравнение с If-None-Match и ответ 304 без сериализации тела выполняет сам Spring
+// (HttpEntityMethodProcessor), если ETag установлен в ResponseEntity
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(Object... parts) {
+        return "\"" + digest(parts) + "\"";
+    }
+
+    // Для GET Spring сравнивает ETag слабо, поэтому 304 для списков сохраняется
+    public static String weakOf(Object... parts) {
+        return "W/" + of(parts);
+    }
+
+    private static String digest(Object[] parts) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(Arrays.deepToString(parts).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязан поддерживаться любой реализацией Java
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit;
+
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exception.BadInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+// Непрозрачный курсор keyset-пагинации: base64url("<ключ>|<id>") последнего элемента страницы.
+// Подходит для лент с сортировкой (ключ DESC, id DESC): бронирования по start, запросы по created
+public final class KeysetCursor {
+    private static final char SEPARATOR = '|';
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(LocalDateTime key, Long id) {
+        String raw = key.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // keyProperty - свойство сущности, по которому отсортирована лента. Пустой курсор означает первую страницу
+    public static ScrollPosition decode(String cursor, String keyProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadInputException("Некорректный курсор: " + cursor);
+            }
+            LocalDateTime key = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return ScrollPosition.forward(Map.of(keyProperty, key, "id", id));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadInputException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit;
+
+// Сущность с версией оптимистической блокировки (@Version). Версия растёт при каждом изменении строки
+public interface Versioned {
+    Long getId();
+
+    Long getVersion();
+}
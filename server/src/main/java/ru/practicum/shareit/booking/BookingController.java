@@ -3,6 +3,8 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,13 +16,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.EntityTags;
+import ru.practicum.shareit.KeysetCursor;
 import ru.practicum.shareit.PageResponse;
+import ru.practicum.shareit.SliceResponse;
 import ru.practicum.shareit.booking.dto.BookingDtoChange;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.DataNotFoundException;
 
 import java.net.URI;
+import java.util.List;
 
 @Slf4j
 @Controller
@@ -59,7 +65,9 @@ public class BookingController {
                                                            @PathVariable Long bookingId) {
         log.debug("Получение информации о бронировании с ID {}. Пользователем с ID {}", bookingId, userId);
         BookingDtoResponse readyDto = bookingService.getBookingById(userId, bookingId);
-        return ResponseEntity.ok(readyDto);
+        // Название вещи берётся из другой сущности, поэтому входит в ETag вместе с версией бронирования
+        String etag = EntityTags.of(readyDto.getId(), readyDto.getVersion(), readyDto.getItem());
+        return ResponseEntity.ok().eTag(etag).body(readyDto);
     }
 
     @GetMapping
@@ -69,12 +77,7 @@ public class BookingController {
             @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
             @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
         log.debug("Получение списка бронирований пользователя с ID {}", userId);
-        BookingState bookingState;
-        try {
-            bookingState = BookingState.valueOf(stateParam.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new DataNotFoundException("Не найден статус: " + stateParam);
-        }
+        BookingState bookingState = parseState(stateParam);
         Page<BookingDtoResponse> page = bookingService.getBookingsByUser(userId, bookingState, from, size);
 
         PageResponse<BookingDtoResponse> response = new PageResponse<>();
@@ -94,12 +97,7 @@ public class BookingController {
             @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
             @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
         log.debug("Получение бронирований для всех вещей пользователя с ID {}", userId);
-        BookingState bookingState;
-        try {
-            bookingState = BookingState.valueOf(stateParam.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new DataNotFoundException("Не найден статус: " + stateParam);
-        }
+        BookingState bookingState = parseState(stateParam);
         Page<BookingDtoResponse> page = bookingService.getBookingsForItems(userId, bookingState, from, size);
 
         PageResponse<BookingDtoResponse> response = new PageResponse<>();
@@ -111,4 +109,83 @@ public class BookingController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // Режим без COUNT (count=false): вместо totalElements/totalPages возвращается только hasNext
+    @GetMapping(params = {"count=false", "!after"})
+    public ResponseEntity<SliceResponse<BookingDtoResponse>> getBookingSliceByUser(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("Получение списка бронирований пользователя с ID {} без подсчёта общего числа", userId);
+        Slice<BookingDtoResponse> slice = bookingService.getBookingSliceByUser(userId, parseState(stateParam),
+                from, size);
+        return ResponseEntity.ok(toSliceResponse(slice));
+    }
+
+    @GetMapping(path = "/owner", params = {"count=false", "!after"})
+    public ResponseEntity<SliceResponse<BookingDtoResponse>> getBookingSliceForItems(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("Получение бронирований для всех вещей пользователя с ID {} без подсчёта общего числа", userId);
+        Slice<BookingDtoResponse> slice = bookingService.getBookingSliceForItems(userId, parseState(stateParam),
+                from, size);
+        return ResponseEntity.ok(toSliceResponse(slice));
+    }
+
+    // Keyset-режим: параметр after присутствует (пустой - первая страница), COUNT не выполняется
+    @GetMapping(params = "after")
+    public ResponseEntity<SliceResponse<BookingDtoResponse>> scrollBookingsByUser(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "after") String after,
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("Получение списка бронирований пользователя с ID {} после курсора {}", userId, after);
+        Window<BookingDtoResponse> window = bookingService.scrollBookingsByUser(userId, parseState(stateParam),
+                after, size);
+        return ResponseEntity.ok(toSliceResponse(window, size));
+    }
+
+    @GetMapping(path = "/owner", params = "after")
+    public ResponseEntity<SliceResponse<BookingDtoResponse>> scrollBookingsForItems(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "after") String after,
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("Получение бронирований для всех вещей пользователя с ID {} после курсора {}", userId, after);
+        Window<BookingDtoResponse> window = bookingService.scrollBookingsForItems(userId, parseState(stateParam),
+                after, size);
+        return ResponseEntity.ok(toSliceResponse(window, size));
+    }
+
+    private BookingState parseState(String stateParam) {
+        try {
+            return BookingState.valueOf(stateParam.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new DataNotFoundException("Не найден статус: " + stateParam);
+        }
+    }
+
+    private SliceResponse<BookingDtoResponse> toSliceResponse(Slice<BookingDtoResponse> slice) {
+        SliceResponse<BookingDtoResponse> response = new SliceResponse<>();
+        response.setContent(slice.getContent());
+        response.setSize(slice.getSize());
+        response.setHasNext(slice.hasNext());
+        return response;
+    }
+
+    private SliceResponse<BookingDtoResponse> toSliceResponse(Window<BookingDtoResponse> window, int size) {
+        List<BookingDtoResponse> content = window.getContent();
+        SliceResponse<BookingDtoResponse> response = new SliceResponse<>();
+        response.setContent(content);
+        response.setSize(size);
+        response.setHasNext(window.hasNext());
+        if (window.hasNext() && !content.isEmpty()) {
+            BookingDtoResponse last = content.getLast();
+            response.setNextCursor(KeysetCursor.encode(last.getStart(), last.getId()));
+        }
+        return response;
+    }
+}
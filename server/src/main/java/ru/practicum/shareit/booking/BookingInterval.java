@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+// Проекция бронирования для календаря доступности: только границы интервала
+public interface BookingInterval {
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Подтверждённые бронирования часто запрашиваемых вещей в памяти (LRU + TTL).
+// Подтверждённые интервалы одной вещи не пересекаются (excl_booking_item_overlap), поэтому отсортированы
+// и по началу, и по концу: поиск первого пересечения - бинарный поиск по массиву концов.
+// В кэш попадает только будущее относительно момента загрузки; запросы о прошлом идут в базу.
+@Component
+public class BookingIntervalCache {
+    private final BookingRepository bookingRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, ItemIntervals> entries;
+    // Поколение вещи растёт при каждой инвалидации; загрузка кладёт результат, только если оно не изменилось.
+    // Таблица поколений ограничена: при переполнении очищается, а смена эпохи отменяет все текущие загрузки
+    private final Map<Long, Long> generations = new HashMap<>();
+    private long epoch;
+    private final Counter hits;
+    private final Counter misses;
+
+    public BookingIntervalCache(BookingRepository bookingRepository,
+                                @Value("${shareit.availability-cache.max-size:1000}") int maxSize,
+                                @Value("${shareit.availability-cache.ttl:PT5M}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("shareit.booking.interval.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.booking.interval.cache").tag("result", "miss").register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemIntervals> eldest) {
+                return size() > maxSize;
+            }
+        };
+        Gauge.builder("shareit.booking.interval.cache.size", this, BookingIntervalCache::size).register(meterRegistry);
+    }
+
+    // Подтверждённые бронирования вещи, пересекающиеся с [from, to), в порядке начала
+    public List<BookingInterval> findApproved(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemIntervals intervals = lookup(itemId);
+        if (intervals != null && !from.isBefore(intervals.coveredFrom)) {
+            hits.increment();
+            return intervals.overlapping(from, to);
+        }
+        misses.increment();
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            return bookingRepository.findByItemIdAndStatusAndEndAfterAndStartBeforeOrderByStartAsc(
+                    itemId, Status.APPROVED, from, to);
+        }
+        long startEpoch;
+        long startGeneration;
+        synchronized (entries) {
+            startEpoch = epoch;
+            startGeneration = generations.getOrDefault(itemId, 0L);
+        }
+        ItemIntervals loaded = new ItemIntervals(now,
+                bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(itemId, Status.APPROVED, now),
+                System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            // Инвалидация во время чтения из БД: загруженный список мог устареть, в кэш он не попадает
+            if (epoch == startEpoch && generations.getOrDefault(itemId, 0L) == startGeneration) {
+                entries.put(itemId, loaded);
+            }
+        }
+        return loaded.overlapping(from, to);
+    }
+
+    // Удаляем сразу и ещё раз после коммита, чтобы параллельное чтение не вернуло в кэш старые данные
+    public void invalidate(Long itemId) {
+        remove(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generations.clear();
+            epoch++;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private ItemIntervals lookup(Long itemId) {
+        synchronized (entries) {
+            ItemIntervals intervals = entries.get(itemId);
+            if (intervals != null && intervals.expiresAt - System.nanoTime() < 0) {
+                entries.remove(itemId);
+                return null;
+            }
+            return intervals;
+        }
+    }
+
+    private void remove(Long itemId) {
+        synchronized (entries) {
+            entries.remove(itemId);
+            if (generations.size() >= maxSize && !generations.containsKey(itemId)) {
+                generations.clear();
+                epoch++;
+            }
+            generations.merge(itemId, 1L, Long::sum);
+        }
+    }
+
+    private static class ItemIntervals {
+        private final LocalDateTime coveredFrom;
+        private final List<BookingInterval> intervals;
+        private final LocalDateTime[] ends;
+        private final long expiresAt;
+
+        ItemIntervals(LocalDateTime coveredFrom, List<BookingInterval> intervals, long expiresAt) {
+            this.coveredFrom = coveredFrom;
+            this.intervals = List.copyOf(intervals);
+            this.ends = intervals.stream().map(BookingInterval::getEnd).toArray(LocalDateTime[]::new);
+            this.expiresAt = expiresAt;
+        }
+
+        List<BookingInterval> overlapping(LocalDateTime from, LocalDateTime to) {
+            // Первый интервал, который заканчивается позже from
+            int low = 0;
+            int high = ends.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ends[mid].isAfter(from)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            List<BookingInterval> result = new ArrayList<>();
+            for (int i = low; i < intervals.size() && intervals.get(i).getStart().isBefore(to); i++) {
+                result.add(intervals.get(i));
+            }
+            return result;
+        }
+    }
+}
@@ -26,7 +26,8 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .status(booking.getStatus().name());
+                .status(booking.getStatus().name())
+                .version(booking.getVersion());
 
         // Делаем ДТО вручную без ItemMapper, иначе возникает цикл между ItemMapper и UserMapper
         if (booking.getItem() != null) {
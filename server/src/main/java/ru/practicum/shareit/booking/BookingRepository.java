@@ -1,17 +1,45 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findByItemIdIn(List<Long> itemIds);
+// Списки бронирований по состоянию строятся через Specification (BookingSpecifications)
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    // Для каждой вещи не более двух строк: последнее завершённое и ближайшее будущее подтверждённое бронирование.
+    // Текущая аренда не входит ни в одно из них. Каждый подзапрос - один спуск по индексу
+    // (idx_booking_item_status_end и idx_booking_item_status_start), стоимость не зависит от истории вещи
+    @Query(value = "SELECT b.* FROM booking b WHERE b.id IN (" +
+            "SELECT (SELECT l.id FROM booking l " +
+            "WHERE l.item_id = i.id AND l.status = 'APPROVED' AND l.end_lease < :now " +
+            "ORDER BY l.end_lease DESC LIMIT 1) FROM items i WHERE i.id IN (:itemIds) " +
+            "UNION ALL " +
+            "SELECT (SELECT n.id FROM booking n " +
+            "WHERE n.item_id = i.id AND n.status = 'APPROVED' AND n.start_lease > :now " +
+            "ORDER BY n.start_lease ASC LIMIT 1) FROM items i WHERE i.id IN (:itemIds))",
+            nativeQuery = true)
+    List<Booking> findLastAndNextApproved(@Param("itemIds") List<Long> itemIds,
+                                          @Param("now") LocalDateTime now);
+
+    // Пересечение с подтверждённым бронированием: [start, end) против [s, e). Спуск по idx_booking_item_status_start,
+    // окончательную гарантию при гонке даёт ограничение excl_booking_item_overlap
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, Status status,
+                                                             LocalDateTime end, LocalDateTime start);
+
+    // Календарь доступности: подтверждённые интервалы, пересекающиеся с [from, to).
+    // Условие end > from ограничивает спуск по idx_booking_item_status_end будущим относительно from
+    List<BookingInterval> findByItemIdAndStatusAndEndAfterAndStartBeforeOrderByStartAsc(Long itemId,
+                                                                                         Status status,
+                                                                                         LocalDateTime from,
+                                                                                         LocalDateTime to);
+
+    List<BookingInterval> findByItemIdAndStatusAndEndAfterOrderByStartAsc(Long itemId,
+                                                                          Status status,
+                                                                          LocalDateTime from);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.booker.id = :bookerId " +
@@ -22,48 +50,4 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("itemId") Long itemId,
             @Param("status") Status status
     );
-
-    Page<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId " +
-            "AND b.start <= :now AND b.end >= :now " +
-            "ORDER BY b.start DESC")
-    Page<Booking> findCurrentByItemOwner(@Param("ownerId") Long ownerId,
-                                         @Param("now") LocalDateTime now,
-                                         Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId,
-                                                                LocalDateTime end,
-                                                                Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId,
-                                                                 LocalDateTime start,
-                                                                 Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId,
-                                                             Status status,
-                                                             Pageable pageable);
-
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :userId " +
-            "AND :now BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    Page<Booking> findCurrentByBooker(@Param("userId") Long userId,
-                                      @Param("now") LocalDateTime now,
-                                      Pageable pageable);
-
-    Page<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId,
-                                                             LocalDateTime end,
-                                                             Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId,
-                                                              LocalDateTime start,
-                                                              Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId,
-                                                          Status status,
-                                                          Pageable pageable);
-}
\ No newline at end of file
+}
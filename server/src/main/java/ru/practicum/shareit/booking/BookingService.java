@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingDtoChange;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingState;
@@ -15,4 +17,12 @@ public interface BookingService {
     Page<BookingDtoResponse> getBookingsByUser(Long userId, BookingState state, int from, int size);
 
     Page<BookingDtoResponse> getBookingsForItems(Long userId, BookingState state, int from, int size);
+
+    Slice<BookingDtoResponse> getBookingSliceByUser(Long userId, BookingState state, int from, int size);
+
+    Slice<BookingDtoResponse> getBookingSliceForItems(Long userId, BookingState state, int from, int size);
+
+    Window<BookingDtoResponse> scrollBookingsByUser(Long userId, BookingState state, String after, int size);
+
+    Window<BookingDtoResponse> scrollBookingsForItems(Long userId, BookingState state, String after, int size);
 }
\ No newline at end of file
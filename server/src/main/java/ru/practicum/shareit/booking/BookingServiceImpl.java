@@ -2,15 +2,21 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoChange;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.KeysetCursor;
 import ru.practicum.shareit.exception.BadInputException;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
@@ -18,6 +24,7 @@ import ru.practicum.shareit.exception.ItemUnavailableException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -27,10 +34,13 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalCache bookingIntervalCache;
 
     @Override
     @Transactional
@@ -48,6 +58,7 @@ public class BookingServiceImpl implements BookingService {
         if (!item.getAvailable()) {
             throw new ItemUnavailableException("Вещь с id " + itemId + " недоступна для бронирования");
         }
+        checkNoApprovedOverlap(itemId, bookingDtoChange.getStart(), bookingDtoChange.getEnd());
         Booking booking = bookingMapper.toBooking(item, user, bookingDtoChange);
         Booking createdBooking = bookingRepository.save(booking);
         return bookingMapper.toBookingDtoResponse(createdBooking);
@@ -56,7 +67,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDtoResponse update(Long userId, Long bookingId, Boolean confirmation) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new BadInputException("Пользователя с id " + userId + " нет в базе");
         }
 
@@ -73,13 +84,45 @@ public class BookingServiceImpl implements BookingService {
         }
 
         Status newStatus = confirmation ? Status.APPROVED : Status.REJECTED;
+        if (newStatus == Status.APPROVED) {
+            checkNoApprovedOverlap(existingBooking.getItem().getId(),
+                    existingBooking.getStart(), existingBooking.getEnd());
+        }
         existingBooking.setStatus(newStatus);
+        if (newStatus == Status.APPROVED) {
+            // Параллельное подтверждение пересекающегося бронирования отсекает ограничение в базе
+            try {
+                bookingRepository.saveAndFlush(existingBooking);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Вещь уже забронирована на пересекающийся период");
+            }
+            bookingIntervalCache.invalidate(existingBooking.getItem().getId());
+        }
         return bookingMapper.toBookingDtoResponse(existingBooking);
     }
 
+    private void checkNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, Status.APPROVED, end, start)) {
+            throw new ConflictException("Вещь уже забронирована на пересекающийся период");
+        }
+    }
+
+    // Владелец вещей заведомо существует: на основном пути один запрос вместо двух,
+    // отдельная проверка пользователя нужна только для текста ошибки
+    private void requireItemOwner(Long userId) {
+        if (userRepository.existsByIdAndItemsIsNotEmpty(userId)) {
+            userExistenceCache.remember(userId);
+            return;
+        }
+        if (!userExistenceCache.exists(userId)) {
+            throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
+        }
+        throw new DataNotFoundException("Пользователь с id " + userId + " не является владельцем ни одной вещи");
+    }
+
     @Override
     public BookingDtoResponse getBookingById(Long userId, Long bookingId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
         }
         Booking existingBooking = bookingRepository.findById(bookingId)
@@ -93,75 +136,66 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Page<BookingDtoResponse> getBookingsByUser(Long userId, BookingState state, int from, int size) {
-        if (!userRepository.existsById(userId)) {
-            throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
-        }
-        LocalDateTime now = LocalDateTime.now();
-        log.info("Пользователь userId={}, Статус бронирования state={}, текущее время now={}", userId, state, now);
-        Page<Booking> bookings;
-        Pageable pageable = PageRequest.of(from / size, size,
-                Sort.by(Sort.Direction.DESC, "start"));
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findCurrentByBooker(userId, now, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                break;
-            default:
-                throw new IllegalArgumentException("Несуществующий статус бронирования");
-        }
-        return bookings.map(bookingMapper::toBookingDtoResponse);
+        Specification<Booking> filter = bookerFilter(userId, state);
+        return bookingRepository.findAll(filter, newestFirst(from, size)).map(bookingMapper::toBookingDtoResponse);
     }
 
     @Override
     public Page<BookingDtoResponse> getBookingsForItems(Long userId, BookingState state, int from, int size) {
-        if (!userRepository.existsById(userId)) {
+        Specification<Booking> filter = ownerFilter(userId, state);
+        return bookingRepository.findAll(filter, newestFirst(from, size)).map(bookingMapper::toBookingDtoResponse);
+    }
+
+    // Slice читает size + 1 строку для hasNext, запрос COUNT не выполняется
+    @Override
+    public Slice<BookingDtoResponse> getBookingSliceByUser(Long userId, BookingState state, int from, int size) {
+        Specification<Booking> filter = bookerFilter(userId, state);
+        Slice<Booking> bookings = bookingRepository.findBy(filter, query -> query.slice(newestFirst(from, size)));
+        return bookings.map(bookingMapper::toBookingDtoResponse);
+    }
+
+    @Override
+    public Slice<BookingDtoResponse> getBookingSliceForItems(Long userId, BookingState state, int from, int size) {
+        Specification<Booking> filter = ownerFilter(userId, state);
+        Slice<Booking> bookings = bookingRepository.findBy(filter, query -> query.slice(newestFirst(from, size)));
+        return bookings.map(bookingMapper::toBookingDtoResponse);
+    }
+
+    // Keyset-пагинация: условие (start, id) < курсора вместо OFFSET, без запроса COUNT
+    @Override
+    public Window<BookingDtoResponse> scrollBookingsByUser(Long userId, BookingState state, String after, int size) {
+        Specification<Booking> filter = bookerFilter(userId, state);
+        return scroll(filter, after, size).map(bookingMapper::toBookingDtoResponse);
+    }
+
+    @Override
+    public Window<BookingDtoResponse> scrollBookingsForItems(Long userId, BookingState state, String after, int size) {
+        Specification<Booking> filter = ownerFilter(userId, state);
+        return scroll(filter, after, size).map(bookingMapper::toBookingDtoResponse);
+    }
+
+    private Specification<Booking> bookerFilter(Long userId, BookingState state) {
+        if (!userExistenceCache.exists(userId)) {
             throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
         }
-        if (!userRepository.existsByIdAndItemsIsNotEmpty(userId)) {
-            throw new DataNotFoundException("Пользователь с id " + userId + " не является владельцем ни одной вещи");
-        }
         LocalDateTime now = LocalDateTime.now();
-        Page<Booking> bookings;
-        Pageable pageable = PageRequest.of(from / size, size,
-                Sort.by(Sort.Direction.DESC, "start"));
-
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findCurrentByItemOwner(userId, now, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                break;
-            default:
-                throw new IllegalArgumentException("Несуществующий статус бронирования");
-        }
+        log.info("Пользователь userId={}, Статус бронирования state={}, текущее время now={}", userId, state, now);
+        return BookingSpecifications.byBooker(userId).and(BookingSpecifications.inState(state, now));
+    }
 
-        return bookings.map(bookingMapper::toBookingDtoResponse);
+    private Specification<Booking> ownerFilter(Long userId, BookingState state) {
+        requireItemOwner(userId);
+        return BookingSpecifications.byItemOwner(userId)
+                .and(BookingSpecifications.inState(state, LocalDateTime.now()));
+    }
+
+    private Window<Booking> scroll(Specification<Booking> filter, String after, int size) {
+        ScrollPosition position = KeysetCursor.decode(after, "start");
+        return bookingRepository.findBy(filter, query -> query.sortBy(NEWEST_FIRST).limit(size).scroll(position));
+    }
+
+    // id разделяет бронирования с одинаковым началом, порядок совпадает с курсором KeysetCursor
+    private static Pageable newestFirst(int from, int size) {
+        return PageRequest.of(from / size, size, NEWEST_FIRST);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.time.LocalDateTime;
+
+// Условия выборки бронирований. Фильтр по состоянию строится один раз и используется
+// во всех видах выдачи (Page, Slice, Window) для бронирующего и для владельца вещей
+final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    static Specification<Booking> byItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> (root, query, cb) -> cb.conjunction();
+            case CURRENT -> (root, query, cb) -> cb.and(
+                    cb.lessThanOrEqualTo(root.get("start"), now),
+                    cb.greaterThanOrEqualTo(root.get("end"), now));
+            case PAST -> (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE -> (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case WAITING -> (root, query, cb) -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED -> (root, query, cb) -> cb.equal(root.get("status"), Status.REJECTED);
+        };
+    }
+}
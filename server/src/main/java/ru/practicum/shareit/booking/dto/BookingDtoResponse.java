@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
@@ -33,4 +34,7 @@ public class BookingDtoResponse {
     private UserDtoInternal booker;
 
     private String status;
-}
\ No newline at end of file
+
+    @JsonIgnore
+    private Long version;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.comment;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -25,7 +26,7 @@ import java.util.Objects;
 @Table(name = "comments", schema = "public")
 @Getter
 @Setter
-@ToString
+@ToString(exclude = {"item", "author"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,11 +38,11 @@ public class Comment {
     @Column(name = "text", nullable = false)
     private String text;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private User author;
 
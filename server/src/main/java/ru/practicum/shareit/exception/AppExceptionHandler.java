@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -35,6 +36,15 @@ public class AppExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    // Строку изменил параллельный запрос: версия в БД уже не совпадает с прочитанной
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Response> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Выброшено исключение OptimisticLockingFailureException: {}", ex.getMessage());
+        Response response = new Response("Конфликт изменений",
+                "Объект был изменён другим запросом, повторите операцию");
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Response> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
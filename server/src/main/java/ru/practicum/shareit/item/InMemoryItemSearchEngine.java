@@ -0,0 +1,297 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Инвертированный индекс доступных вещей в памяти JVM: токен -> отсортированный список id вещей.
+// Термин запроса совпадает со всеми токенами словаря, которые его содержат, поэтому поиск по части
+// слова работает как в LIKE; несколько терминов запроса пересекаются. Такие токены находятся
+// через индекс n-грамм (длиной до трёх символов), без перебора всего словаря.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, InfoContributor {
+    private static final Pattern TOKEN_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int GRAM_LENGTH = 3;
+    private final ItemRepository itemRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // Изменения, применённые во время перестроения: повторяются на новом индексе перед подменой
+    private List<Item> pendingChanges;
+
+    // Новый индекс строится в стороне и подменяет текущий целиком, поиск во время сборки не блокируется
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Segment rebuilt = new Segment();
+        try {
+            itemRepository.findByAvailableTrue().forEach(item -> rebuilt.add(snapshot(item)));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(rebuilt::apply);
+            pendingChanges = null;
+            segment = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска вещей построен: вещей {}, токенов {}, около {} байт",
+                rebuilt.documents.size(), rebuilt.postings.size(), footprintBytes());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String[] terms = tokenize(text);
+        if (terms.length == 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            long[] matched = null;
+            for (String term : terms) {
+                long[] termIds = new long[0];
+                for (String token : segment.tokensContaining(term)) {
+                    termIds = LongPostingList.union(termIds, segment.postings.get(token).toArray());
+                }
+                matched = matched == null ? termIds : LongPostingList.intersect(matched, termIds);
+                if (matched.length == 0) {
+                    return Collections.emptyList();
+                }
+            }
+            int fromIndex = (int) Math.min(pageable.getOffset(), matched.length);
+            int toIndex = Math.min(fromIndex + pageable.getPageSize(), matched.length);
+            List<Item> result = new ArrayList<>(toIndex - fromIndex);
+            for (int i = fromIndex; i < toIndex; i++) {
+                result.add(segment.documents.get(matched[i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        afterCommit(snapshot(item));
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        // Удаление - то же изменение, что и снятие вещи с доступа
+        itemIds.forEach(id -> afterCommit(Item.builder().id(id).available(false).build()));
+    }
+
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, LongPostingList> entry : segment.postings.entrySet()) {
+                bytes += stringBytes(entry.getKey()) + entry.getValue().footprintBytes() + 48L;
+            }
+            for (Map.Entry<String, Set<String>> entry : segment.tokensByGram.entrySet()) {
+                bytes += stringBytes(entry.getKey()) + 64L + entry.getValue().size() * 40L;
+            }
+            for (Item item : segment.documents.values()) {
+                bytes += 64L + stringBytes(item.getName()) + stringBytes(item.getDescription()) + 48L;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        int itemCount;
+        int tokenCount;
+        lock.readLock().lock();
+        try {
+            itemCount = segment.documents.size();
+            tokenCount = segment.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        builder.withDetail("itemSearchIndex", Map.of(
+                "items", itemCount,
+                "tokens", tokenCount,
+                "footprintBytes", footprintBytes()));
+    }
+
+    // Изменения попадают в индекс только после успешного коммита транзакции
+    private void afterCommit(Item snapshot) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(snapshot);
+                }
+            });
+        } else {
+            apply(snapshot);
+        }
+    }
+
+    private void apply(Item snapshot) {
+        lock.writeLock().lock();
+        try {
+            segment.apply(snapshot);
+            if (pendingChanges != null) {
+                pendingChanges.add(snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String[] documentTokens(Item item) {
+        return Arrays.stream(tokenize(item.getName() + " " + item.getDescription()))
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(TOKEN_DELIMITER.split(text.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // Все подстроки токена длиной от одного до GRAM_LENGTH символов
+    private static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= token.length(); i++) {
+                grams.add(token.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + value.length() * 2L;
+    }
+
+    // Отсоединённая копия без коллекций бронирований и отзывов
+    private static Item snapshot(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+    }
+
+    // Состояние индекса; подменяется целиком при перестроении
+    private static final class Segment {
+        private final Map<String, LongPostingList> postings = new HashMap<>();
+        private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+        private final Map<Long, Item> documents = new HashMap<>();
+
+        void apply(Item snapshot) {
+            Item previous = documents.remove(snapshot.getId());
+            if (previous != null) {
+                remove(previous);
+            }
+            if (Boolean.TRUE.equals(snapshot.getAvailable())) {
+                add(snapshot);
+            }
+        }
+
+        void add(Item item) {
+            documents.put(item.getId(), item);
+            for (String token : documentTokens(item)) {
+                postings.computeIfAbsent(token, key -> {
+                    grams(key).forEach(gram -> tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(key));
+                    return new LongPostingList();
+                }).add(item.getId());
+            }
+        }
+
+        private void remove(Item item) {
+            for (String token : documentTokens(item)) {
+                LongPostingList list = postings.get(token);
+                if (list != null) {
+                    list.remove(item.getId());
+                    if (list.isEmpty()) {
+                        postings.remove(token);
+                        removeGrams(token);
+                    }
+                }
+            }
+        }
+
+        private void removeGrams(String token) {
+            for (String gram : grams(token)) {
+                Set<String> tokens = tokensByGram.get(gram);
+                if (tokens != null) {
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) {
+                        tokensByGram.remove(gram);
+                    }
+                }
+            }
+        }
+
+        // Короткий термин сам является n-граммой; для длинного пересекаются множества его триграмм,
+        // а оставшиеся кандидаты проверяются на вхождение целиком
+        Collection<String> tokensContaining(String term) {
+            if (term.length() <= GRAM_LENGTH) {
+                return tokensByGram.getOrDefault(term, Collections.emptySet());
+            }
+            Set<String> smallest = null;
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                Set<String> tokens = tokensByGram.get(term.substring(i, i + GRAM_LENGTH));
+                if (tokens == null) {
+                    return Collections.emptySet();
+                }
+                if (smallest == null || tokens.size() < smallest.size()) {
+                    smallest = tokens;
+                }
+            }
+            List<String> result = new ArrayList<>();
+            for (String token : smallest) {
+                if (token.contains(term)) {
+                    result.add(token);
+                }
+            }
+            return result;
+        }
+    }
+}
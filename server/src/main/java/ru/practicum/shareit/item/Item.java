@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,12 +11,15 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.practicum.shareit.EntityChangeListener;
+import ru.practicum.shareit.Versioned;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.request.ItemRequest;
@@ -26,14 +30,15 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "items", schema = "public")
 @Getter
 @Setter
-@ToString(exclude = {"owner", "request"})
+@ToString(exclude = {"owner", "request", "bookings", "comments"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Item {
+public class Item implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -47,6 +52,10 @@ public class Item {
     @Column(name = "available", nullable = false)
     private Boolean available;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
@@ -55,10 +64,13 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
-    @OneToMany(mappedBy = "item", fetch = FetchType.EAGER)
+    // Коллекции загружаются только там, где они нужны (см. ItemRepository.findWithCommentsById)
+    @Builder.Default
+    @OneToMany(mappedBy = "item", fetch = FetchType.LAZY)
     private List<Booking> bookings = new ArrayList<>();
 
-    @OneToMany(mappedBy = "item", fetch = FetchType.EAGER)
+    @Builder.Default
+    @OneToMany(mappedBy = "item", fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
 
     @Override
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,14 +14,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.EntityTags;
 import ru.practicum.shareit.comment.dto.CommentDtoChange;
 import ru.practicum.shareit.comment.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -60,7 +64,10 @@ public class ItemController {
                                                         @PathVariable Long itemId) {
         log.debug("ItemController. Получение вещи с ID {}. Пользователем с ID {}", itemId, userId);
         ItemDtoWithDetails readyDto = itemService.getItemById(userId, itemId);
-        return ResponseEntity.ok(readyDto);
+        // Бронирования владельца и имена авторов отзывов версией вещи не отражаются и входят в ETag отдельно
+        String etag = EntityTags.of(readyDto.getId(), readyDto.getVersion(),
+                readyDto.getLastBooking(), readyDto.getNextBooking(), readyDto.getComments());
+        return ResponseEntity.ok().eTag(etag).body(readyDto);
     }
 
     // Просмотр владельцем списка всех его вещей, с указанием названия и описания для каждой из них
@@ -68,17 +75,33 @@ public class ItemController {
     public ResponseEntity<List<ItemDtoShort>> getItemsByOwner(@RequestHeader(USER_ID) Long userId) {
         log.debug("ItemController. Получение всех его вещей, пользователем с ID {}", userId);
         List<ItemDtoShort> itemDtos = itemService.getItemsByOwner(userId);
-        return ResponseEntity.ok(itemDtos);
+        return ResponseEntity.ok().eTag(EntityTags.weakOf(itemDtos)).body(itemDtos);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDtoResponse>> searchItems(@RequestHeader(USER_ID) Long userId,
-                                                             @RequestParam String text) {
+    public ResponseEntity<List<ItemDtoResponse>> searchItems(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam String text,
+            @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+            @RequestParam(name = "size", required = false, defaultValue = "100") Integer size) {
         log.debug("ItemController. Поиск вещи по запросу - {}, пользователем с ID {}", text, userId);
-        List<ItemDtoResponse> itemDtos = itemService.searchItems(userId, text);
+        List<ItemDtoResponse> itemDtos = itemService.searchItems(userId, text, from, size);
         return ResponseEntity.ok(itemDtos);
     }
 
+    // Календарь вещи: занятые подтверждёнными бронированиями и свободные окна в периоде [from, to)
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getAvailability(
+            @RequestHeader(USER_ID) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("ItemController. Календарь доступности вещи с ID {} с {} по {}, пользователем с ID {}",
+                itemId, from, to, userId);
+        ItemAvailabilityDto readyDto = itemService.getAvailability(userId, itemId, from, to);
+        return ResponseEntity.ok(readyDto);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<CommentDtoResponse> createComment(@RequestHeader(USER_ID) Long userId,
                                                             @PathVariable Long itemId,
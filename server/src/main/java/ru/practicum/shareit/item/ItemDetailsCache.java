@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.EntityChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Ограниченный по размеру и времени жизни (LRU + TTL) кэш карточек вещей.
+// Хранит только часть ItemDtoWithDetails, одинаковую для всех пользователей: бронирования владельцу
+// добавляются при каждом запросе.
+@Component
+public class ItemDetailsCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, CachedEntry> entries;
+    // Поколение карточки растёт при каждой инвалидации; загрузка кладёт результат, только если оно не изменилось.
+    // Значения берутся из общего счётчика sequence. Сброс всех карточек и переполнение таблицы поколений
+    // поднимают нижнюю границу floor, что отменяет все текущие загрузки
+    private final Map<Long, Long> generations = new HashMap<>();
+    private long sequence;
+    private long floor;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ItemDetailsCache(@Value("${shareit.item-cache.max-size:10000}") int maxSize,
+                            @Value("${shareit.item-cache.ttl:PT5M}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("shareit.item.details.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.item.details.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("shareit.item.details.cache.evictions").register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedEntry> eldest) {
+                boolean evict = size() > maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+        Gauge.builder("shareit.item.details.cache.size", this, ItemDetailsCache::size).register(meterRegistry);
+    }
+
+    public Optional<Entry> get(Long itemId) {
+        synchronized (entries) {
+            CachedEntry cached = entries.get(itemId);
+            if (cached == null || cached.expiresAt - System.nanoTime() < 0) {
+                if (cached != null) {
+                    entries.remove(itemId);
+                }
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(cached.entry);
+        }
+    }
+
+    // Снимается до чтения вещи из БД и передаётся в put
+    public long generation(Long itemId) {
+        synchronized (entries) {
+            return Math.max(floor, generations.getOrDefault(itemId, 0L));
+        }
+    }
+
+    // Карточку сбросили, пока она читалась из БД: загруженные данные могли устареть, в кэш они не попадают
+    public void put(Long itemId, long generation, Entry entry) {
+        synchronized (entries) {
+            if (Math.max(floor, generations.getOrDefault(itemId, 0L)) == generation) {
+                entries.put(itemId, new CachedEntry(entry, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    // Изменение полей и удаление вещи сбрасывают карточку; новый отзыв увеличивает версию без @PostUpdate,
+    // поэтому ItemServiceImpl очищает карточку явно. Имена авторов отзывов берутся из пользователей,
+    // а какие карточки содержат отзывы пользователя, кэш не знает: изменение пользователя сбрасывает все
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.isAbout(Item.class)) {
+            invalidate(event.getId());
+        } else if (event.isAbout(User.class) && event.getKind() == EntityChangedEvent.Kind.UPDATED) {
+            invalidateAll();
+        }
+    }
+
+    // Удаляем сразу и ещё раз после коммита. Чтение, начатое до коммита, своё устаревшее значение
+    // уже не положит: каждое удаление меняет поколение карточки
+    public void invalidate(Long itemId) {
+        remove(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            entries.clear();
+            generations.clear();
+            floor = ++sequence;
+        }
+    }
+
+    private void remove(Long itemId) {
+        synchronized (entries) {
+            entries.remove(itemId);
+            if (generations.size() >= maxSize && !generations.containsKey(itemId)) {
+                generations.clear();
+                floor = ++sequence;
+            }
+            generations.put(itemId, ++sequence);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final Long ownerId;
+        private final ItemDtoWithDetails details;
+
+        // Копия для наложения бронирований конкретного запроса; список отзывов неизменяемый и общий
+        public ItemDtoWithDetails copyDetails() {
+            return ItemDtoWithDetails.builder()
+                    .id(details.getId())
+                    .name(details.getName())
+                    .description(details.getDescription())
+                    .available(details.getAvailable())
+                    .version(details.getVersion())
+                    .comments(details.getComments())
+                    .build();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class CachedEntry {
+        private final Entry entry;
+        private final long expiresAt;
+    }
+}
@@ -3,8 +3,6 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoInternal;
@@ -15,15 +13,12 @@ import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 
-import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.Objects;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ItemMapper {
-    private final BookingMapper bookingMapper;
     private final ItemRequestRepository itemRequestRepository;
 
     public ItemDtoResponse toItemDtoResponse(Item item) {
@@ -34,6 +29,7 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
 
@@ -48,7 +44,8 @@ public class ItemMapper {
                 .owner(owner);
 
         if (itemDtoChange.getRequestId() != null) {
-            ItemRequest itemRequest = itemRequestRepository.findById(itemDtoChange.getRequestId())
+            // Новая вещь меняет ответ на запрос, поэтому версия запроса увеличивается
+            ItemRequest itemRequest = itemRequestRepository.findWithVersionIncrementById(itemDtoChange.getRequestId())
                     .orElse(null);
             builder.request(itemRequest);
         }
@@ -64,41 +61,20 @@ public class ItemMapper {
                 .build();
     }
 
-    public ItemDtoWithDetails toItemDtoWithDetails(User user, Item item) {
+    // Сведения о бронированиях видит только владелец, их добавляет ItemServiceImpl
+    public ItemDtoWithDetails toItemDtoWithDetails(Item item) {
         Objects.requireNonNull(item, "Вещь (Item) не должна быть null");
-        Objects.requireNonNull(user, "Пользователь (User) не должен быть null");
 
-        ItemDtoWithDetails.ItemDtoWithDetailsBuilder builder = ItemDtoWithDetails.builder()
+        return ItemDtoWithDetails.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .version(item.getVersion())
                 .comments(item.getComments().stream()
-                        .map(comment -> CommentMapper.toCommentDtoResponse(user, comment))
-                        .toList());
-
-        // Сведения о бронированиях предоставляем только владельцу вещи
-        if (item.getOwner().getId().equals(user.getId())) {
-            // Получаем последнее бронирование
-            Booking last = item.getBookings().stream()
-                    .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                    .max(Comparator.comparing(Booking::getStart))
-                    .orElse(null);
-
-            // Получаем следующее бронирование
-            Booking next = item.getBookings().stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                    .min(Comparator.comparing(Booking::getStart))
-                    .orElse(null);
-
-            if (last != null) {
-                builder.lastBooking(bookingMapper.toBookingInfoDto(last));
-            }
-            if (next != null) {
-                builder.nextBooking(bookingMapper.toBookingInfoDto(next));
-            }
-        }
-        return builder.build();
+                        .map(comment -> CommentMapper.toCommentDtoResponse(comment.getAuthor(), comment))
+                        .toList())
+                .build();
     }
 
     public ItemForRequestDto toItemForRequestDto(Item item) {
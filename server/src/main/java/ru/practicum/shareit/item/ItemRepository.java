@@ -1,16 +1,72 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerId(Long ownerId);
 
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    List<Item> findByAvailableTrue();
+
+    // Вещи, созданные в ответ на запросы одной страницы; спуск по idx_items_request_id.
+    // Сразу ItemForRequestDto: пять колонок без сущностей Item и их проверки при flush
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemForRequestDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.request.id IN :requestIds ORDER BY i.id")
+    List<ItemForRequestDto> findForRequestByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    // Вещи автора запроса среди кандидатов подбора: свои вещи ему не предлагаются
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId AND i.id IN :ids")
+    List<Long> findIdsByOwnerIdAndIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+
+    // Карточка вещи: отзывы вместе с авторами подгружаются одним запросом
+    @EntityGraph(attributePaths = {"comments", "comments.author"})
+    Optional<Item> findWithCommentsById(Long id);
+
+    // Версия вещи увеличивается сразу под блокировкой строки, даже если сами её поля не менялись
+    // (например, добавлен отзыв). Параллельные записи ждут друг друга, а не падают с 409 при коммите
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    Optional<Item> findWithVersionIncrementById(Long id);
+
+    // Изменение полей вещи под блокировкой строки: версия читается после коммита параллельного отзыва
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findForUpdateById(Long id);
+
     @Query("SELECT i FROM Item i WHERE i.available = true AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<Item> searchAvailableItems(@Param("searchText") String searchText);
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :searchText, '%'))) " +
+            "ORDER BY i.id")
+    List<Item> searchAvailableItems(@Param("searchText") String searchText, Pageable pageable);
+
+    // Вес названия (A) выше веса описания (B), запрос разбирается русским и английским словарями
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = TRUE " +
+            "AND i.search_vector @@ (plainto_tsquery('russian', :searchText) " +
+            "|| plainto_tsquery('english', :searchText)) " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('russian', :searchText) " +
+            "|| plainto_tsquery('english', :searchText)) DESC, i.id",
+            nativeQuery = true)
+    List<Item> fullTextSearchAvailableItems(@Param("searchText") String searchText, Pageable pageable);
+
+    // Выражения LOWER(...) совпадают с индексами idx_items_name_trgm и idx_items_description_trgm
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = TRUE AND " +
+            "(LOWER(i.name) LIKE CONCAT('%', :searchText, '%') OR " +
+            "LOWER(i.description) LIKE CONCAT('%', :searchText, '%')) " +
+            "ORDER BY i.id",
+            nativeQuery = true)
+    List<Item> trigramSearchAvailableItems(@Param("searchText") String searchText, Pageable pageable);
 }
\ No newline at end of file
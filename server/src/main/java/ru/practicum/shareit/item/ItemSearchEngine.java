@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+// Стратегия поиска доступных вещей, реализация выбирается свойством shareit.search.engine
+public interface ItemSearchEngine {
+    List<Item> search(String text, Pageable pageable);
+
+    // Вызывается после создания или изменения вещи; движкам поверх БД действий не требуется
+    default void index(Item item) {
+    }
+
+    // Вызывается при удалении вещей, в том числе каскадном вместе с владельцем
+    default void remove(Collection<Long> itemIds) {
+    }
+}
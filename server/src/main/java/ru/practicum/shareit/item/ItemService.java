@@ -2,11 +2,13 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDtoChange;
 import ru.practicum.shareit.comment.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -18,7 +20,9 @@ public interface ItemService {
 
     List<ItemDtoShort> getItemsByOwner(Long userId);
 
-    List<ItemDtoResponse> searchItems(Long userId, String text);
+    List<ItemDtoResponse> searchItems(Long userId, String text, int from, int size);
+
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDtoResponse createComment(Long itemId, Long userId, CommentDtoChange commentDtoChange);
 }
\ No newline at end of file
@@ -2,9 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingInterval;
+import ru.practicum.shareit.booking.BookingIntervalCache;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
@@ -16,21 +20,25 @@ import ru.practicum.shareit.comment.dto.CommentDtoResponse;
 import ru.practicum.shareit.exception.BadInputException;
 import ru.practicum.shareit.exception.CommentNotAllowedException;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,11 +46,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    // Жёсткий предел размера страницы поиска, независимо от запрошенного клиентом
+    public static final int MAX_SEARCH_SIZE = 100;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemRequestRepository itemRequestRepository;
     private final ItemMapper itemMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDetailsCache itemDetailsCache;
+    private final BookingIntervalCache bookingIntervalCache;
 
     @Override
     @Transactional
@@ -51,13 +66,14 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id " + ownerId + " не найден"));
         Item item = itemMapper.toItem(owner, itemDtoChange);
         Item createdItem = itemRepository.save(item);
+        itemSearchEngine.index(createdItem);
         return itemMapper.toItemDtoResponse(createdItem);
     }
 
     @Override
     @Transactional
     public ItemDtoResponse update(Long userId, Long itemId, ItemDtoChange itemDtoChange) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
         }
         if (itemDtoChange.getName() == null
@@ -65,7 +81,7 @@ public class ItemServiceImpl implements ItemService {
                 && itemDtoChange.getAvailable() == null) {
             throw new BadInputException("Должно быть задано хотя бы одно поле для обновления вещи");
         }
-        Item existingItem = itemRepository.findById(itemId)
+        Item existingItem = itemRepository.findForUpdateById(itemId)
                 .orElseThrow(() -> new DataNotFoundException("Вещь с id " + itemId + " не найдена"));
         Long ownerId = existingItem.getOwner().getId();
 
@@ -81,30 +97,60 @@ public class ItemServiceImpl implements ItemService {
         if (itemDtoChange.getAvailable() != null) {
             existingItem.setAvailable(itemDtoChange.getAvailable());
         }
+        // Вещь входит в ответ на запрос: его версия тоже должна измениться
+        if (existingItem.getRequest() != null) {
+            itemRequestRepository.findWithVersionIncrementById(existingItem.getRequest().getId());
+        }
+        // Явная очистка не зависит от того, дойдёт ли изменение до @PostUpdate при flush
+        itemDetailsCache.invalidate(itemId);
+        // Запись до коммита: иначе @PostUpdate сработает при коммите, когда слушатели BEFORE_COMMIT
+        // (повторный подбор вещи к запросам) уже отработали
+        itemRepository.flush();
+        itemSearchEngine.index(existingItem);
         return itemMapper.toItemDtoResponse(existingItem);
     }
 
     @Override
     public ItemDtoWithDetails getItemById(Long userId, Long itemId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id " + userId + " не найден"));
-        Item itemFound = itemRepository.findById(itemId)
-                .orElseThrow(() -> new DataNotFoundException("Вещь с id " + itemId + " не найдена"));
-        return itemMapper.toItemDtoWithDetails(user, itemFound);
+        if (!userExistenceCache.exists(userId)) {
+            throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
+        }
+        ItemDetailsCache.Entry entry = itemDetailsCache.get(itemId).orElse(null);
+        if (entry == null) {
+            long generation = itemDetailsCache.generation(itemId);
+            Item itemFound = itemRepository.findWithCommentsById(itemId)
+                    .orElseThrow(() -> new DataNotFoundException("Вещь с id " + itemId + " не найдена"));
+            entry = new ItemDetailsCache.Entry(itemFound.getOwner().getId(),
+                    itemMapper.toItemDtoWithDetails(itemFound));
+            itemDetailsCache.put(itemId, generation, entry);
+        }
+        ItemDtoWithDetails dto = entry.copyDetails();
+
+        // Сведения о бронированиях предоставляем только владельцу вещи, всегда из БД
+        if (userId.equals(entry.getOwnerId())) {
+            LocalDateTime now = LocalDateTime.now();
+            applyLastAndNext(bookingRepository.findLastAndNextApproved(List.of(itemId), now), now,
+                    dto::setLastBooking, dto::setNextBooking);
+        }
+        return dto;
     }
 
     @Override
     public List<ItemDtoShort> getItemsByOwner(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
         }
         List<Item> items = itemRepository.findByOwnerId(userId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .toList();
 
-        // Получаем бронирования для всех вещей одним запросом
-        Map<Long, List<Booking>> bookingsMap = bookingRepository.findByItemIdIn(itemIds).stream()
+        // Последнее и следующее бронирование для всех вещей одним запросом, не более двух строк на вещь
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Booking>> bookingsMap = bookingRepository.findLastAndNextApproved(itemIds, now).stream()
                 .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
 
         return items.stream()
@@ -114,55 +160,81 @@ public class ItemServiceImpl implements ItemService {
                             .description(item.getDescription())
                             .build();
 
-                    List<Booking> itemBookings = bookingsMap.getOrDefault(item.getId(), Collections.emptyList());
-
-                    // Находим последнее завершенное бронирование
-                    Optional<Booking> lastBooking = itemBookings.stream()
-                            .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now())
-                                    && booking.getStatus() == Status.APPROVED)
-                            .max(Comparator.comparing(Booking::getEnd));
-
-                    // Находим ближайшее будущее бронирование
-                    Optional<Booking> nextBooking = itemBookings.stream()
-                            .filter(booking -> booking.getStart().isAfter(LocalDateTime.now())
-                                    && booking.getStatus() == Status.APPROVED)
-                            .min(Comparator.comparing(Booking::getStart));
-
-                    lastBooking.ifPresent(booking -> dto.setLastBooking(
-                            new BookingInfoDto(booking.getId(), booking.getBooker().getId())
-                    ));
-
-                    nextBooking.ifPresent(booking -> dto.setNextBooking(
-                            new BookingInfoDto(booking.getId(), booking.getBooker().getId())
-                    ));
+                    applyLastAndNext(bookingsMap.getOrDefault(item.getId(), Collections.emptyList()), now,
+                            dto::setLastBooking, dto::setNextBooking);
                     return dto;
                 })
                 .toList();
     }
 
     @Override
-    public List<ItemDtoResponse> searchItems(Long userId, String text) {
-        if (!userRepository.existsById(userId)) {
+    public List<ItemDtoResponse> searchItems(Long userId, String text, int from, int size) {
+        if (!userExistenceCache.exists(userId)) {
             throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
         }
+        // PageRequest.of ниже делит на size и не принимает отрицательный номер страницы
+        if (from < 0 || size < 1) {
+            throw new BadInputException("Параметр from должен быть неотрицательным, а size - положительным");
+        }
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
         String searchText = text.toLowerCase();
-        List<Item> items = itemRepository.searchAvailableItems(searchText);
+        int pageSize = Math.min(size, MAX_SEARCH_SIZE);
+        Pageable pageable = PageRequest.of(from / pageSize, pageSize);
+        List<Item> items = itemSearchEngine.search(searchText, pageable);
         log.debug("Получено {} вещей из ItemStorage", items.size());
         return items.stream()
                 .map(itemMapper::toItemDtoResponse)
                 .toList();
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
+        }
+        if (!from.isBefore(to)) {
+            throw new BadInputException("Начало периода должно быть раньше его окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new DataNotFoundException("Вещь с id " + itemId + " не найдена");
+        }
+        List<AvailabilityWindowDto> busy = new ArrayList<>();
+        List<AvailabilityWindowDto> free = new ArrayList<>();
+        // Интервалы не пересекаются и идут по возрастанию: свободные окна - промежутки между ними
+        LocalDateTime cursor = from;
+        for (BookingInterval interval : bookingIntervalCache.findApproved(itemId, from, to)) {
+            LocalDateTime start = interval.getStart().isBefore(from) ? from : interval.getStart();
+            LocalDateTime end = interval.getEnd().isAfter(to) ? to : interval.getEnd();
+            if (cursor.isBefore(start)) {
+                free.add(new AvailabilityWindowDto(cursor, start));
+            }
+            busy.add(new AvailabilityWindowDto(start, end));
+            if (end.isAfter(cursor)) {
+                cursor = end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new AvailabilityWindowDto(cursor, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
     @Override
     @Transactional
     public CommentDtoResponse createComment(Long itemId, Long userId, CommentDtoChange commentDtoChange) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id " + userId + " не найден"));
 
-        Item item = itemRepository.findById(itemId)
+        // Отзыв входит в карточку вещи, поэтому версия вещи увеличивается
+        Item item = itemRepository.findWithVersionIncrementById(itemId)
                 .orElseThrow(() -> new DataNotFoundException("Вещь с id " + itemId + " не найдена"));
 
         if (item.getOwner().getId().equals(userId)) {
@@ -182,6 +254,21 @@ public class ItemServiceImpl implements ItemService {
         }
         Comment comment = CommentMapper.toComment(item, user, commentDtoChange);
         Comment createdComment = commentRepository.save(comment);
+        // Принудительное увеличение версии не вызывает @PostUpdate, событие для кэша карточек не публикуется
+        itemDetailsCache.invalidate(itemId);
         return CommentMapper.toCommentDtoResponse(user, createdComment);
     }
+
+    // Бронирование, завершившееся до now, - последнее, иначе - следующее
+    private static void applyLastAndNext(List<Booking> bookings, LocalDateTime now,
+                                         Consumer<BookingInfoDto> last, Consumer<BookingInfoDto> next) {
+        for (Booking booking : bookings) {
+            BookingInfoDto info = new BookingInfoDto(booking.getId(), booking.getBooker().getId());
+            if (booking.getEnd().isBefore(now)) {
+                last.accept(info);
+            } else {
+                next.accept(info);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -17,5 +17,6 @@ public class ItemDtoResponse {
     private String name;
     private String description;
     private Boolean available;
+    private Long requestId;
     private ItemRequestDtoChange requestDto;
 }
\ No newline at end of file
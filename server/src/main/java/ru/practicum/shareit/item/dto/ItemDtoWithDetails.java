@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,8 @@ public class ItemDtoWithDetails {
     private BookingInfoDto lastBooking;
     private BookingInfoDto nextBooking;
     private List<CommentDtoResponse> comments;
-}
\ No newline at end of file
+
+    // Версия вещи для ETag: растёт и при изменении полей, и при новом отзыве
+    @JsonIgnore
+    private Long version;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,6 +19,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import ru.practicum.shareit.EntityChangeListener;
+import ru.practicum.shareit.Versioned;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
@@ -26,6 +30,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "requests", schema = "public")
 @Getter
 @Setter
@@ -33,7 +38,7 @@ import java.util.Objects;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ItemRequest {
+public class ItemRequest implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -49,6 +54,10 @@ public class ItemRequest {
     @CreationTimestamp
     private LocalDateTime created;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "request", fetch = FetchType.LAZY)
     @Builder.Default
     private List<Item> items = new ArrayList<>();
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +14,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.EntityTags;
+import ru.practicum.shareit.KeysetCursor;
 import ru.practicum.shareit.PageResponse;
+import ru.practicum.shareit.SliceResponse;
 import ru.practicum.shareit.request.dto.ItemRequestDtoChange;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 
 import java.net.URI;
 import java.util.List;
@@ -45,10 +50,13 @@ public class ItemRequestController {
 
     // Метод позволяет получить список своих запросов вместе с данными об ответах на них
     @GetMapping
-    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsByOwner(@RequestHeader(USER_ID) Long userId) {
+    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsByOwner(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+            @RequestParam(name = "size", required = false) Integer size) {
         log.debug("ItemRequestController. Получение его запросов, пользователем с ID {}", userId);
-        List<ItemRequestDtoResponse> itemRequestDtos = itemRequestService.getRequestsByOwner(userId);
-        return ResponseEntity.ok(itemRequestDtos);
+        List<ItemRequestDtoResponse> itemRequestDtos = itemRequestService.getRequestsByOwner(userId, from, size);
+        return ResponseEntity.ok().eTag(EntityTags.weakOf(itemRequestDtos)).body(itemRequestDtos);
     }
 
     @GetMapping("/all")
@@ -68,11 +76,42 @@ public class ItemRequestController {
         return ResponseEntity.ok(response);
     }
 
+    // Keyset-лента: параметр before присутствует (пустой - самые новые запросы), COUNT не выполняется
+    @GetMapping(path = "/all", params = "before")
+    public ResponseEntity<SliceResponse<ItemRequestDtoResponse>> scrollAllRequests(
+            @RequestParam(name = "before") String before,
+            @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        log.debug("ItemRequestController. Получение ленты запросов до курсора {}", before);
+        Window<ItemRequestDtoResponse> window = itemRequestService.scrollAllRequests(before, size);
+
+        List<ItemRequestDtoResponse> content = window.getContent();
+        SliceResponse<ItemRequestDtoResponse> response = new SliceResponse<>();
+        response.setContent(content);
+        response.setSize(size);
+        response.setHasNext(window.hasNext());
+        if (window.hasNext() && !content.isEmpty()) {
+            ItemRequestDtoResponse last = content.getLast();
+            response.setNextCursor(KeysetCursor.encode(last.getCreated(), last.getId()));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestDtoResponse> foundRequest(@RequestHeader(USER_ID) Long userId,
                                                                @PathVariable Long requestId) {
         log.debug("ItemRequestController. Получение запроса с ID {}. Пользователем с ID {}", requestId, userId);
         ItemRequestDtoResponse dtoResponse = itemRequestService.getRequestById(requestId);
-        return ResponseEntity.ok(dtoResponse);
+        // Вещи-ответы удаляются каскадом вместе с владельцем без изменения версии запроса и входят в ETag отдельно
+        String etag = EntityTags.of(dtoResponse.getId(), dtoResponse.getVersion(), dtoResponse.getItems());
+        return ResponseEntity.ok().eTag(etag).body(dtoResponse);
+    }
+
+    // Вещи, подобранные к своему запросу по совпадению терминов описания
+    @GetMapping("/{requestId}/suggestions")
+    public ResponseEntity<List<ItemSuggestionDto>> getSuggestions(@RequestHeader(USER_ID) Long userId,
+                                                                  @PathVariable Long requestId) {
+        log.debug("ItemRequestController. Получение подобранных вещей для запроса с ID {}. Пользователем с ID {}",
+                requestId, userId);
+        return ResponseEntity.ok(itemRequestService.getSuggestions(userId, requestId));
     }
 }
\ No newline at end of file
@@ -38,6 +38,20 @@ public class ItemRequestMapper {
                 .description(entity.getDescription())
                 .created(entity.getCreated())
                 .items(itemForRequestDtos)
+                .version(entity.getVersion())
+                .build();
+    }
+
+    // Пути чтения: запрос и его вещи уже получены проекциями
+    public ItemRequestDtoResponse toItemRequestDtoResponse(ItemRequestView view, List<ItemForRequestDto> items) {
+        Objects.requireNonNull(view, "Запрос вещи (ItemRequestView) не должен быть null");
+
+        return ItemRequestDtoResponse.builder()
+                .id(view.getId())
+                .description(view.getDescription())
+                .created(view.getCreated())
+                .items(items)
+                .version(view.getVersion())
                 .build();
     }
 }
\ No newline at end of file
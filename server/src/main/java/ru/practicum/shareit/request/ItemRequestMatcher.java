@@ -0,0 +1,162 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.EntityChangedEvent;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Подбор вещей к запросам при записи. Новый запрос сохраняет термины своего описания и получает лучшие
+// из уже доступных вещей; новая или изменённая вещь по индексу терминов находит подходящие запросы
+// и попадает в их подборки, если набирает больше самой слабой вещи подборки. Обе стороны оценивают
+// вещь одной функцией RequestTerms.score. В каждой подборке не больше topN вещей,
+// поэтому чтение - одна выборка по request_id без вычисления совпадений
+@Slf4j
+@Component
+public class ItemRequestMatcher {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final RequestTermRepository requestTermRepository;
+    private final ItemSuggestionRepository itemSuggestionRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final int topN;
+    private final Pageable candidates;
+
+    public ItemRequestMatcher(ItemRequestRepository itemRequestRepository,
+                              ItemRepository itemRepository,
+                              RequestTermRepository requestTermRepository,
+                              ItemSuggestionRepository itemSuggestionRepository,
+                              ItemSearchEngine itemSearchEngine,
+                              @Value("${shareit.request-matching.top-n:10}") int topN,
+                              @Value("${shareit.request-matching.candidates:50}") int candidates) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.requestTermRepository = requestTermRepository;
+        this.itemSuggestionRepository = itemSuggestionRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.topN = topN;
+        this.candidates = PageRequest.of(0, candidates);
+    }
+
+    // Перед коммитом: уже вне колбэка JPA, но в той же транзакции, что и новая строка
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.isAbout(ItemRequest.class) && event.getKind() == EntityChangedEvent.Kind.CREATED) {
+            itemRequestRepository.findById(event.getId()).ifPresent(this::matchRequest);
+        } else if (event.isAbout(Item.class) && event.getKind() != EntityChangedEvent.Kind.DELETED) {
+            // Изменённая вещь могла стать доступной или сменить название и описание: подбор заново
+            if (event.getKind() == EntityChangedEvent.Kind.UPDATED) {
+                itemSuggestionRepository.deleteByItemId(event.getId());
+            }
+            itemRepository.findById(event.getId()).ifPresent(this::matchItem);
+        }
+    }
+
+    void matchRequest(ItemRequest request) {
+        List<String> terms = RequestTerms.of(request.getDescription());
+        if (terms.isEmpty()) {
+            return;
+        }
+        requestTermRepository.saveAll(terms.stream()
+                .map(term -> RequestTerm.builder().request(request).term(term).build())
+                .toList());
+
+        // Кандидатов находит настроенный движок поиска, оценка - по терминам самой вещи
+        Map<Long, Integer> scores = new HashMap<>();
+        for (String term : terms) {
+            for (Item item : itemSearchEngine.search(term, candidates)) {
+                if (!scores.containsKey(item.getId())) {
+                    int score = RequestTerms.score(terms, RequestTerms.of(item.getName(), item.getDescription()));
+                    scores.put(item.getId(), score);
+                }
+            }
+        }
+        scores.values().removeIf(score -> score == 0);
+        if (scores.isEmpty()) {
+            return;
+        }
+        Set<Long> ownItems = new HashSet<>(itemRepository.findIdsByOwnerIdAndIdIn(
+                request.getRequestor().getId(), scores.keySet()));
+        List<ItemSuggestion> suggestions = scores.entrySet().stream()
+                .filter(entry -> !ownItems.contains(entry.getKey()))
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(topN)
+                .map(entry -> ItemSuggestion.builder()
+                        .request(request)
+                        .item(itemRepository.getReferenceById(entry.getKey()))
+                        .score(entry.getValue())
+                        .build())
+                .toList();
+        itemSuggestionRepository.saveAll(suggestions);
+        log.debug("Запрос {}: терминов {}, подобрано вещей {}", request.getId(), terms.size(), suggestions.size());
+    }
+
+    void matchItem(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        List<String> terms = RequestTerms.of(item.getName(), item.getDescription());
+        if (terms.isEmpty()) {
+            return;
+        }
+        // Запрос, в ответ на который создана вещь, уже видит её в своём списке items
+        Long answeredRequestId = item.getRequest() == null ? null : item.getRequest().getId();
+        List<RequestTermRepository.RequestMatch> matches = requestTermRepository
+                .findMatchingRequests(terms, item.getOwner().getId(), candidates).stream()
+                .filter(match -> !Objects.equals(match.getRequestId(), answeredRequestId))
+                .toList();
+        if (matches.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = matches.stream()
+                .map(RequestTermRepository.RequestMatch::getRequestId)
+                .toList();
+        Map<Long, List<ItemSuggestion>> current = itemSuggestionRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(suggestion -> suggestion.getRequest().getId()));
+        Map<Long, List<String>> requestTerms = requestTermRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(term -> term.getRequest().getId(),
+                        Collectors.mapping(RequestTerm::getTerm, Collectors.toList())));
+
+        List<ItemSuggestion> added = new ArrayList<>();
+        List<ItemSuggestion> displaced = new ArrayList<>();
+        for (RequestTermRepository.RequestMatch match : matches) {
+            int score = RequestTerms.score(requestTerms.getOrDefault(match.getRequestId(), List.of()), terms);
+            List<ItemSuggestion> suggestions = current.getOrDefault(match.getRequestId(), List.of());
+            if (suggestions.size() >= topN) {
+                // При равной оценке подборка не меняется: иначе каждая новая вещь переписывала бы её
+                ItemSuggestion weakest = suggestions.stream()
+                        .min(Comparator.comparing(ItemSuggestion::getScore))
+                        .orElseThrow();
+                if (score <= weakest.getScore()) {
+                    continue;
+                }
+                displaced.add(weakest);
+            }
+            added.add(ItemSuggestion.builder()
+                    .request(itemRequestRepository.getReferenceById(match.getRequestId()))
+                    .item(item)
+                    .score(score)
+                    .build());
+        }
+        itemSuggestionRepository.deleteAll(displaced);
+        itemSuggestionRepository.saveAll(added);
+        log.debug("Вещь {}: найдено запросов {}, добавлена в подборки {}", item.getId(), matches.size(), added.size());
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,17 +16,27 @@ import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    @Query("SELECT DISTINCT ir FROM ItemRequest ir " +
-            "LEFT JOIN FETCH ir.items " +
-            "WHERE ir.requestor.id = :requestorId " +
-            "ORDER BY ir.created DESC")
-    List<ItemRequest> findByRequestorIdWithItems(@Param("requestorId") Long requestorId);
+    // Методы чтения возвращают проекцию ItemRequestView, вещи догружаются отдельно
+    // (ItemRepository.findForRequestByRequestIdIn) - управляемых сущностей на этих путях нет.
 
-    @EntityGraph(attributePaths = {"items"})
-    Page<ItemRequest> findAllByOrderByCreatedDesc(Pageable pageable);
+    // Свои запросы без JOIN FETCH items: join давал строку на каждую вещь и DISTINCT поверх неё.
+    // Спуск по idx_requests_requestor_created. Возвращает List, поэтому COUNT не выполняется
+    List<ItemRequestView> findByRequestorIdOrderByCreatedDescIdDesc(Long requestorId, Pageable pageable);
 
-    @Query("SELECT ir FROM ItemRequest ir " +
-            "LEFT JOIN FETCH ir.items " +
-            "WHERE ir.id = :id")
-    Optional<ItemRequest> findByIdWithItems(@Param("id") Long id);
+    // Только сами запросы: с fetch коллекции Hibernate применил бы LIMIT/OFFSET в памяти ко всей таблице
+    // Порядок задаётся только именем метода; id разделяет запросы с одинаковым created
+    Page<ItemRequestView> findAllByOrderByCreatedDescIdDesc(Pageable pageable);
+
+    // Keyset-лента: условие (created, id) < курсора вместо OFFSET, без запроса COUNT
+    Window<ItemRequestView> findAllByOrderByCreatedDescIdDesc(ScrollPosition position, Limit limit);
+
+    Optional<ItemRequestView> findViewById(Long id);
+
+    @Query("SELECT ir.requestor.id FROM ItemRequest ir WHERE ir.id = :id")
+    Optional<Long> findRequestorIdById(@Param("id") Long id);
+
+    // Список вещей запроса изменился: версия запроса увеличивается сразу под блокировкой строки,
+    // два владельца, одновременно отвечающие на запрос, выполняются по очереди
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    Optional<ItemRequest> findWithVersionIncrementById(Long id);
 }
\ No newline at end of file
@@ -1,18 +1,24 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.request.dto.ItemRequestDtoChange;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 
 import java.util.List;
 
 public interface ItemRequestService {
     ItemRequestDtoResponse create(ItemRequestDtoChange itemRequestDtoChange, Long userId);
 
-    List<ItemRequestDtoResponse> getRequestsByOwner(Long userId);
+    List<ItemRequestDtoResponse> getRequestsByOwner(Long userId, int from, Integer size);
 
 
     ItemRequestDtoResponse getRequestById(Long requestId);
 
     Page<ItemRequestDtoResponse> getAllRequests(int from, int size);
+
+    Window<ItemRequestDtoResponse> scrollAllRequests(String before, int size);
+
+    List<ItemSuggestionDto> getSuggestions(Long userId, Long requestId);
 }
\ No newline at end of file
@@ -2,19 +2,29 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.KeysetCursor;
+import ru.practicum.shareit.exception.BadInputException;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoChange;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -22,7 +32,10 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSuggestionRepository itemSuggestionRepository;
     private final ItemRequestMapper itemRequestMapper;
 
     @Override
@@ -36,29 +49,86 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDtoResponse> getRequestsByOwner(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    public List<ItemRequestDtoResponse> getRequestsByOwner(Long userId, int from, Integer size) {
+        if (!userExistenceCache.exists(userId)) {
             throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
         }
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdWithItems(userId);
+        // Без size - все запросы пользователя, как и раньше
+        if (size != null) {
+            checkPage(from, size);
+        }
+        Pageable pageable = size == null ? Pageable.unpaged() : PageRequest.of(from / size, size);
+        List<ItemRequestView> itemRequests = itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(
+                userId, pageable);
+        Map<Long, List<ItemForRequestDto>> itemsByRequest = findItemsByRequest(itemRequests);
         return itemRequests.stream()
-                .map(itemRequestMapper::toItemRequestDtoResponse)
+                .map(request -> itemRequestMapper.toItemRequestDtoResponse(request,
+                        itemsByRequest.getOrDefault(request.getId(), Collections.emptyList())))
                 .toList();
     }
 
     @Override
     public Page<ItemRequestDtoResponse> getAllRequests(int from, int size) {
         log.debug("Вызван метод ItemRequestService.getAllRequests()");
+        checkPage(from, size);
         int pageNumber = from / size;
-        Pageable pageable = PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.DESC, "created"));
-        Page<ItemRequest> itemRequestPage = itemRequestRepository.findAllByOrderByCreatedDesc(pageable);
-        return itemRequestPage.map(itemRequestMapper::toItemRequestDtoResponse);
+        Pageable pageable = PageRequest.of(pageNumber, size);
+        // Двухфазная выборка: страница запросов с LIMIT в SQL, затем вещи только для этой страницы
+        Page<ItemRequestView> itemRequestPage = itemRequestRepository.findAllByOrderByCreatedDescIdDesc(pageable);
+        Map<Long, List<ItemForRequestDto>> itemsByRequest = findItemsByRequest(itemRequestPage.getContent());
+        return itemRequestPage.map(request -> itemRequestMapper.toItemRequestDtoResponse(request,
+                itemsByRequest.getOrDefault(request.getId(), Collections.emptyList())));
+    }
+
+    @Override
+    public Window<ItemRequestDtoResponse> scrollAllRequests(String before, int size) {
+        log.debug("Вызван метод ItemRequestService.scrollAllRequests() с курсором {}", before);
+        checkPage(0, size);
+        Window<ItemRequestView> window = itemRequestRepository.findAllByOrderByCreatedDescIdDesc(
+                KeysetCursor.decode(before, "created"), Limit.of(size));
+        Map<Long, List<ItemForRequestDto>> itemsByRequest = findItemsByRequest(window.getContent());
+        return window.map(request -> itemRequestMapper.toItemRequestDtoResponse(request,
+                itemsByRequest.getOrDefault(request.getId(), Collections.emptyList())));
+    }
+
+    // Сервер может вызываться в обход шлюза: size=0 дал бы деление на ноль и ответ 500
+    private static void checkPage(int from, int size) {
+        if (from < 0 || size < 1) {
+            throw new BadInputException("Параметр from должен быть неотрицательным, а size - положительным");
+        }
+    }
+
+    // Вторая фаза выборки страницы: вещи только для уже отобранных запросов, одним запросом
+    private Map<Long, List<ItemForRequestDto>> findItemsByRequest(List<ItemRequestView> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestView::getId)
+                .toList();
+        return itemRepository.findForRequestByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
     }
 
     @Override
     public ItemRequestDtoResponse getRequestById(Long requestId) {
-        ItemRequest itemRequest = itemRequestRepository.findByIdWithItems(requestId)
+        ItemRequestView itemRequest = itemRequestRepository.findViewById(requestId)
                 .orElseThrow(() -> new DataNotFoundException("Запрос с id " + requestId + " не найден"));
-        return itemRequestMapper.toItemRequestDtoResponse(itemRequest);
+        return itemRequestMapper.toItemRequestDtoResponse(itemRequest,
+                itemRepository.findForRequestByRequestIdIn(List.of(requestId)));
+    }
+
+    // Подборка уже посчитана при записи (ItemRequestMatcher), здесь только чтение
+    @Override
+    public List<ItemSuggestionDto> getSuggestions(Long userId, Long requestId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new DataNotFoundException("Пользователь с id " + userId + " не найден");
+        }
+        Long requestorId = itemRequestRepository.findRequestorIdById(requestId)
+                .orElseThrow(() -> new DataNotFoundException("Запрос с id " + requestId + " не найден"));
+        if (!userId.equals(requestorId)) {
+            throw new BadInputException("Подобранные вещи доступны только автору запроса");
+        }
+        return itemSuggestionRepository.findSuggestions(requestId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request;
+
+import java.time.LocalDateTime;
+
+// Закрытая проекция запроса для чтения: Spring Data выбирает только эти колонки и возвращает
+// прокси над кортежем, сущности ItemRequest в контексте персистентности не создаются
+public interface ItemRequestView {
+    Long getId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+
+    Long getVersion();
+}
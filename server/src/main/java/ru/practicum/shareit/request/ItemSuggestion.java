@@ -0,0 +1,59 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.item.Item;
+
+import java.util.Objects;
+
+// Вещь, подобранная к запросу при записи; score - число общих терминов запроса и вещи
+@Entity
+@Table(name = "request_suggestions", schema = "public")
+@Getter
+@Setter
+@ToString(exclude = {"request", "item"})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSuggestion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private ItemRequest request;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @Column(name = "score", nullable = false)
+    private Integer score;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ItemSuggestion itemSuggestion = (ItemSuggestion) o;
+        return id != null && Objects.equals(id, itemSuggestion.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSuggestionRepository extends JpaRepository<ItemSuggestion, Long> {
+
+    // Текущие подборки запросов-кандидатов: по ним решается, вытесняет ли новая вещь самую слабую
+    List<ItemSuggestion> findByRequestIdIn(Collection<Long> requestIds);
+
+    // Перед повторным подбором изменённой вещи её прежние места в подборках освобождаются
+    void deleteByItemId(Long itemId);
+
+    // Чтение подборки: спуск по idx_request_suggestions_request_score, вещи - по первичному ключу.
+    // Вещь, ставшая недоступной после подбора, в ответ не попадает
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemSuggestionDto(" +
+            "i.id, i.name, i.description, i.owner.id, s.score) " +
+            "FROM ItemSuggestion s JOIN s.item i " +
+            "WHERE s.request.id = :requestId AND i.available = true " +
+            "ORDER BY s.score DESC, i.id DESC")
+    List<ItemSuggestionDto> findSuggestions(@Param("requestId") Long requestId);
+}
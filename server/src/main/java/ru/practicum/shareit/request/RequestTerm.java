@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+// Термин из описания запроса. Индекс (term, request_id) находит запросы по терминам новой вещи
+@Entity
+@Table(name = "request_terms", schema = "public")
+@Getter
+@Setter
+@ToString(exclude = {"request"})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestTerm {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private ItemRequest request;
+
+    @Column(name = "term", nullable = false)
+    private String term;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RequestTerm requestTerm = (RequestTerm) o;
+        return id != null && Objects.equals(id, requestTerm.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
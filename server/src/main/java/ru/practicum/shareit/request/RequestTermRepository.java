@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RequestTermRepository extends JpaRepository<RequestTerm, Long> {
+
+    // Запросы чужих пользователей с общими терминами, с наибольшим пересечением и новые первыми;
+    // спуск по idx_request_terms_term_request
+    @Query("SELECT t.request.id AS requestId, COUNT(t) AS score FROM RequestTerm t " +
+            "WHERE t.term IN :terms AND t.request.requestor.id <> :ownerId " +
+            "GROUP BY t.request.id " +
+            "ORDER BY COUNT(t) DESC, t.request.id DESC")
+    List<RequestMatch> findMatchingRequests(@Param("terms") Collection<String> terms,
+                                            @Param("ownerId") Long ownerId,
+                                            Pageable pageable);
+
+    // Термины запросов-кандидатов: оценка считается так же, как при подборе со стороны запроса
+    List<RequestTerm> findByRequestIdIn(Collection<Long> requestIds);
+
+    interface RequestMatch {
+        Long getRequestId();
+
+        Long getScore();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.request;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// Термины для подбора вещей к запросам: слова в нижнем регистре, без коротких и чисто числовых,
+// каждое не длиннее колонки request_terms.term
+final class RequestTerms {
+    static final int MAX_TERMS = 32;
+    private static final int MIN_LENGTH = 3;
+    private static final int MAX_LENGTH = 64;
+    private static final Pattern TOKEN_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern HAS_LETTER = Pattern.compile(".*\\p{L}.*");
+
+    private RequestTerms() {
+    }
+
+    static List<String> of(String... texts) {
+        return Arrays.stream(texts)
+                .filter(Objects::nonNull)
+                .flatMap(text -> Arrays.stream(TOKEN_DELIMITER.split(text.toLowerCase())))
+                .filter(token -> token.length() >= MIN_LENGTH && HAS_LETTER.matcher(token).matches())
+                .map(token -> token.length() > MAX_LENGTH ? token.substring(0, MAX_LENGTH) : token)
+                .distinct()
+                .limit(MAX_TERMS)
+                .toList();
+    }
+
+    // Единая оценка вещи для запроса: число терминов запроса, встречающихся среди терминов вещи.
+    // По ней сравниваются вещи в подборке, с какой стороны бы ни шёл подбор
+    static int score(Collection<String> requestTerms, Collection<String> itemTerms) {
+        int score = 0;
+        for (String term : requestTerms) {
+            if (itemTerms.contains(term)) {
+                score++;
+            }
+        }
+        return score;
+    }
+}
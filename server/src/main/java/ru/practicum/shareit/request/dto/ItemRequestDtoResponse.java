@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,4 +23,7 @@ public class ItemRequestDtoResponse {
     private LocalDateTime created;
     @Builder.Default
     private List<ItemForRequestDto> items = new ArrayList<>(); // Вещи, созданные в ответ на запрос
-}
\ No newline at end of file
+
+    @JsonIgnore
+    private Long version;
+}
@@ -2,18 +2,22 @@ package ru.practicum.shareit.user;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.practicum.shareit.EntityChangeListener;
+import ru.practicum.shareit.Versioned;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.request.ItemRequest;
@@ -23,6 +27,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "users", schema = "public")
 @Getter
 @Setter
@@ -30,7 +35,7 @@ import java.util.Objects;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+public class User implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -41,6 +46,10 @@ public class User {
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Builder.Default
     @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
     private List<Item> items = new ArrayList<>();
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.EntityTags;
 import ru.practicum.shareit.PageResponse;
 import ru.practicum.shareit.exception.Response;
 import ru.practicum.shareit.user.dto.UserDtoChange;
@@ -70,7 +71,7 @@ public class UserController {
         log.debug("UserController. Начато получение пользователя по ID. Получен id {}", id);
         UserDtoResponse userDto = userService.getUserById(id);
         log.info("UserController. Получен один пользователь с ID {} и данными: {}", id, userDto);
-        return ResponseEntity.ok(userDto);
+        return ResponseEntity.ok().eTag(EntityTags.of(userDto.getId(), userDto.getVersion())).body(userDto);
     }
 
     @DeleteMapping("/{id}")
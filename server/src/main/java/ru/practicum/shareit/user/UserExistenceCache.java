@@ -0,0 +1,140 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.EntityChangedEvent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Проверка пользователя из X-Sharer-User-Id. Подтверждённый id запоминается в атрибутах HTTP-запроса,
+// поэтому в пределах запроса в базу идём не больше одного раза. Между запросами положительные ответы
+// хранятся ttl (LRU + TTL, ttl=PT0S отключает кэш). Удаление пользователя сбрасывает запись по ленте изменений
+@Component
+public class UserExistenceCache {
+    private static final String VALIDATED_USER = UserExistenceCache.class.getName() + ".VALIDATED_USER";
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, Long> expirations;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.user-cache.max-size:10000}") int maxSize,
+                              @Value("${shareit.user-cache.ttl:PT10S}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("shareit.user.exists.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.user.exists.cache").tag("result", "miss").register(meterRegistry);
+        this.expirations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+        Gauge.builder("shareit.user.exists.cache.size", this, UserExistenceCache::size).register(meterRegistry);
+    }
+
+    public boolean exists(Long userId) {
+        if (userId.equals(validatedInRequest())) {
+            return true;
+        }
+        if (isCached(userId)) {
+            hits.increment();
+            markValidated(userId);
+            return true;
+        }
+        misses.increment();
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            remember(userId);
+        }
+        return exists;
+    }
+
+    // Существование пользователя подтверждено другим запросом (например, он владелец вещи)
+    public void remember(Long userId) {
+        markValidated(userId);
+        if (ttlNanos > 0) {
+            synchronized (expirations) {
+                expirations.put(userId, System.nanoTime() + ttlNanos);
+            }
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.isAbout(User.class) && event.getKind() == EntityChangedEvent.Kind.DELETED) {
+            invalidate(event.getId());
+        }
+    }
+
+    // Удаляем сразу и ещё раз после коммита, чтобы параллельная проверка не вернула пользователя в кэш
+    public void invalidate(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (expirations) {
+            expirations.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (expirations) {
+            return expirations.size();
+        }
+    }
+
+    private boolean isCached(Long userId) {
+        synchronized (expirations) {
+            Long expiresAt = expirations.get(userId);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt - System.nanoTime() < 0) {
+                expirations.remove(userId);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void remove(Long userId) {
+        synchronized (expirations) {
+            expirations.remove(userId);
+        }
+    }
+
+    private static Object validatedInRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : attributes.getAttribute(VALIDATED_USER, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static void markValidated(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(VALIDATED_USER, userId, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -8,11 +8,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingIntervalCache;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDtoChange;
 import ru.practicum.shareit.user.dto.UserDtoResponse;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -20,6 +26,10 @@ import ru.practicum.shareit.user.dto.UserDtoResponse;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDetailsCache itemDetailsCache;
+    private final BookingIntervalCache bookingIntervalCache;
 
     @Override
     @Transactional
@@ -80,6 +90,12 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(id)) {
             throw new DataNotFoundException("Пользователь с id " + id + " не найден");
         }
+        // Вещи удаляются каскадно в БД, их id нужно узнать заранее, чтобы убрать из поискового индекса
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
         userRepository.deleteById(id);
+        itemSearchEngine.remove(itemIds);
+        // Вещи пользователя удаляются каскадно, точечно их в кэше не найти
+        itemDetailsCache.invalidateAll();
+        bookingIntervalCache.invalidateAll();
     }
 }
\ No newline at end of file
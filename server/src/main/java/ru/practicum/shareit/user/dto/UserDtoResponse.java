@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,4 +16,7 @@ public class UserDtoResponse {
     private Long id;
     private String name;
     private String email;
-}
\ No newline at end of file
+
+    @JsonIgnore
+    private Long version;
+}
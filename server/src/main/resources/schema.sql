@@ -1,13 +1,19 @@
+DROP TABLE IF EXISTS request_suggestions CASCADE;
+DROP TABLE IF EXISTS request_terms CASCADE;
 DROP TABLE IF EXISTS booking CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(255) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
@@ -16,6 +22,7 @@ CREATE TABLE IF NOT EXISTS requests (
   description TEXT NOT NULL,
   requestor_id BIGINT NOT NULL,
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT fk_request_user FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
@@ -24,8 +31,15 @@ CREATE TABLE IF NOT EXISTS items
     name VARCHAR(255) NOT NULL,
     description TEXT NOT NULL,
     available BOOLEAN NOT NULL DEFAULT TRUE,
+    version BIGINT NOT NULL DEFAULT 0,
     owner_id BIGINT,
     request_id BIGINT,
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', name), 'A') ||
+        setweight(to_tsvector('english', name), 'A') ||
+        setweight(to_tsvector('russian', description), 'B') ||
+        setweight(to_tsvector('english', description), 'B')
+    ) STORED,
     CONSTRAINT fk_item_user FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
  );
@@ -37,9 +51,12 @@ CREATE TABLE IF NOT EXISTS items
    item_id BIGINT NOT NULL,
    booker_id BIGINT NOT NULL,
    status VARCHAR(9) NOT NULL DEFAULT 'WAITING' CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED')),
+   version BIGINT NOT NULL DEFAULT 0,
    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
    CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
-   CONSTRAINT chk_booking_dates CHECK (end_lease > start_lease)
+   CONSTRAINT chk_booking_dates CHECK (end_lease > start_lease),
+   CONSTRAINT excl_booking_item_overlap EXCLUDE USING gist (item_id WITH =, tsrange(start_lease, end_lease) WITH &&)
+       WHERE (status = 'APPROVED')
  );
 
  CREATE TABLE IF NOT EXISTS comments (
@@ -52,10 +69,37 @@ CREATE TABLE IF NOT EXISTS items
    CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
    );
 
+CREATE TABLE IF NOT EXISTS request_terms (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  request_id BIGINT NOT NULL,
+  term VARCHAR(64) NOT NULL,
+  CONSTRAINT fk_request_term_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+  CONSTRAINT uq_request_term UNIQUE (request_id, term)
+);
+
+CREATE TABLE IF NOT EXISTS request_suggestions (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  request_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  score INTEGER NOT NULL,
+  CONSTRAINT fk_suggestion_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+  CONSTRAINT fk_suggestion_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT uq_request_suggestion UNIQUE (request_id, item_id)
+);
+
 CREATE INDEX idx_items_owner_id ON items(owner_id);
 CREATE INDEX idx_items_request_id ON items(request_id);
-CREATE INDEX idx_requests_requestor_id ON requests(requestor_id);
-CREATE INDEX idx_booking_booker_id ON booking(booker_id);
-CREATE INDEX idx_booking_item_id ON booking(item_id);
+CREATE INDEX idx_items_search_vector ON items USING GIN (search_vector) WHERE available = TRUE;
+CREATE INDEX idx_items_name_trgm ON items USING GIN (LOWER(name) gin_trgm_ops) WHERE available = TRUE;
+CREATE INDEX idx_items_description_trgm ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE available = TRUE;
+CREATE INDEX idx_requests_requestor_created ON requests(requestor_id, created DESC, id DESC);
+CREATE INDEX idx_requests_created_id ON requests(created DESC, id DESC);
+CREATE INDEX idx_request_terms_term_request ON request_terms(term, request_id);
+CREATE INDEX idx_request_suggestions_request_score ON request_suggestions(request_id, score DESC, item_id DESC);
+CREATE INDEX idx_request_suggestions_item_id ON request_suggestions(item_id);
+CREATE INDEX idx_booking_booker_start_id ON booking(booker_id, start_lease DESC, id DESC);
+CREATE INDEX idx_booking_item_status_start ON booking(item_id, status, start_lease);
+CREATE INDEX idx_booking_item_start_id ON booking(item_id, start_lease DESC, id DESC);
+CREATE INDEX idx_booking_item_status_end ON booking(item_id, status, end_lease);
 CREATE INDEX idx_comments_item_id ON comments(item_id);
 CREATE INDEX idx_comments_author_id ON comments(author_id);
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalCache;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.item.Item;
@@ -25,6 +26,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -55,6 +57,9 @@ class BookingIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BookingIntervalCache bookingIntervalCache;
+
     private User owner;
     private User booker;
     private Item item;
@@ -69,6 +74,8 @@ class BookingIntegrationTest {
                     new ClassPathResource("test-schema.sql")
             );
         }
+        // Схема пересоздаётся, идентификаторы вещей повторяются от теста к тесту
+        bookingIntervalCache.invalidateAll();
 
         // Создание тестовых данных
         User user1 = User.builder().id(null).name("Owner").email("owner@example.com").build();
@@ -221,6 +228,85 @@ class BookingIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void shouldRejectBookingOverlappingApprovedOne() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        createBooking(booker, item, Status.APPROVED, start, start.plusDays(2));
+
+        String overlappingJson = "{\"start\":\"" + start.plusDays(1).format(formatter) +
+                "\",\"end\":\"" + start.plusDays(3).format(formatter) +
+                "\",\"itemId\":" + item.getId() + "}";
+        mockMvc.perform(post("/bookings")
+                        .header(ID_USER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(overlappingJson))
+                .andExpect(status().isConflict());
+
+        // Смежный интервал: конец одного совпадает с началом другого - пересечения нет
+        String adjacentJson = "{\"start\":\"" + start.plusDays(2).format(formatter) +
+                "\",\"end\":\"" + start.plusDays(3).format(formatter) +
+                "\",\"itemId\":" + item.getId() + "}";
+        MvcResult adjacent = mockMvc.perform(post("/bookings")
+                        .header(ID_USER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(adjacentJson))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long adjacentId = objectMapper.readTree(adjacent.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", adjacentId)
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRejectApprovalOverlappingApprovedBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        createBooking(booker, item, Status.WAITING, start, start.plusDays(2));
+        createBooking(booker, item, Status.WAITING, start.plusDays(1), start.plusDays(3));
+        List<Booking> waiting = bookingRepository.findAll();
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", waiting.get(0).getId())
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", waiting.get(1).getId())
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturnItemAvailabilityAndRefreshAfterApproval() throws Exception {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        createBooking(booker, item, Status.APPROVED, from.plusDays(2), from.plusDays(3));
+        createBooking(booker, item, Status.WAITING, from.plusDays(5), from.plusDays(6));
+
+        mockMvc.perform(get("/items/{itemId}/availability", item.getId())
+                        .param("from", from.format(formatter))
+                        .param("to", to.format(formatter))
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy.length()").value(1))
+                .andExpect(jsonPath("$.free.length()").value(2));
+
+        Long waitingId = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", waitingId)
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{itemId}/availability", item.getId())
+                        .param("from", from.format(formatter))
+                        .param("to", to.format(formatter))
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy.length()").value(2))
+                .andExpect(jsonPath("$.free.length()").value(3));
+    }
+
     @Test
     void shouldGetBookingsByUser() throws Exception {
         // Создание бронирований с разными статусами
@@ -260,6 +346,67 @@ class BookingIntegrationTest {
                 .andExpect(jsonPath("$.content[0].status").value("APPROVED"));
     }
 
+    @Test
+    void shouldScrollBookingsByUserWithCursor() throws Exception {
+        createBooking(booker, item, Status.WAITING, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        createBooking(booker, item, Status.APPROVED, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4));
+        createBooking(booker, item, Status.REJECTED, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6));
+
+        MvcResult firstPage = mockMvc.perform(get("/bookings?after=&size=2")
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/bookings")
+                        .param("after", cursor)
+                        .param("size", "2")
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].status").value("WAITING"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/bookings/owner?after=&state=FUTURE")
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3));
+    }
+
+    @Test
+    void shouldReturnSliceWithoutTotalsWhenCountDisabled() throws Exception {
+        createBooking(booker, item, Status.WAITING, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        createBooking(booker, item, Status.APPROVED, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4));
+        createBooking(booker, item, Status.REJECTED, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6));
+
+        mockMvc.perform(get("/bookings?count=false&from=0&size=2")
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        mockMvc.perform(get("/bookings/owner?count=false&from=2&size=2")
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].status").value("WAITING"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/bookings?after=not-a-cursor")
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldHandleInvalidState() throws Exception {
         mockMvc.perform(get("/bookings?state=INVALID")
@@ -267,8 +414,28 @@ class BookingIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
-    private void createBooking(User booker, Item item, Status status,
-                               LocalDateTime start, LocalDateTime end) {
+    @Test
+    void shouldReportLastFinishedAndNextFutureBookingToOwner() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Booking finished = createBooking(booker, item, Status.APPROVED, now.minusDays(3), now.minusDays(2));
+        // Текущая аренда уже началась, но ещё не завершилась: ни последнее, ни следующее бронирование
+        createBooking(booker, item, Status.APPROVED, now.minusHours(1), now.plusDays(1));
+        Booking future = createBooking(booker, item, Status.APPROVED, now.plusDays(2), now.plusDays(3));
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastBooking.id").value(finished.getId()))
+                .andExpect(jsonPath("$.nextBooking.id").value(future.getId()));
+        mockMvc.perform(get("/items")
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastBooking.id").value(finished.getId()))
+                .andExpect(jsonPath("$[0].nextBooking.id").value(future.getId()));
+    }
+
+    private Booking createBooking(User booker, Item item, Status status,
+                                  LocalDateTime start, LocalDateTime end) {
         Booking booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -276,6 +443,6 @@ class BookingIntegrationTest {
                 .booker(booker)
                 .status(status)
                 .build();
-        bookingRepository.save(booking);
+        return bookingRepository.save(booking);
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingIntervalCache;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalCacheTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookingIntervalCache(bookingRepository, 10, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void findApproved_whenNotInvalidated_cachesLoadedIntervals() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(eq(1L), eq(Status.APPROVED), any()))
+                .thenReturn(List.of());
+
+        findWeekAhead();
+        findWeekAhead();
+
+        assertEquals(1, cache.size());
+        verify(bookingRepository, times(1))
+                .findByItemIdAndStatusAndEndAfterOrderByStartAsc(eq(1L), eq(Status.APPROVED), any());
+    }
+
+    @Test
+    void findApproved_whenInvalidatedDuringLoad_doesNotCacheStaleIntervals() {
+        // Бронирование подтверждено и закоммичено, пока чтение ещё получало старый список
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(eq(1L), eq(Status.APPROVED), any()))
+                .thenAnswer(invocation -> {
+                    cache.invalidate(1L);
+                    return List.of();
+                });
+
+        findWeekAhead();
+
+        assertEquals(0, cache.size());
+    }
+
+    private void findWeekAhead() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        cache.findApproved(1L, from, from.plusDays(7));
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalCache;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingServiceImpl;
@@ -14,12 +15,14 @@ import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingDtoChange;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.exception.BadInputException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ItemUnavailableException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDtoInternal;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDtoInternal;
 
@@ -44,12 +47,18 @@ class BookingServiceImplUnitTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceCache userExistenceCache;
+
     @Mock
     private ItemRepository itemRepository;
 
     @Mock
     private BookingMapper bookingMapper;
 
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -139,10 +148,27 @@ class BookingServiceImplUnitTest {
         verify(bookingMapper, never()).toBooking(any(), any(), any());
     }
 
+    @Test
+    void create_shouldThrowWhenOverlapsApprovedBooking() {
+        BookingDtoChange dto = BookingDtoChange.builder()
+                .itemId(1L)
+                .start(now.plusHours(1))
+                .end(now.plusHours(2))
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                1L, Status.APPROVED, dto.getEnd(), dto.getStart())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.create(1L, dto));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void update_shouldThrowWhenNotOwner() {
 
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
 
         assertThrows(BadInputException.class, () -> bookingService.update(1L, 1L, true));
@@ -150,7 +176,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void getBookingById_shouldReturnWhenOwner() {
-        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(userExistenceCache.exists(owner.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         BookingDtoResponse responseDto = BookingDtoResponse.builder()
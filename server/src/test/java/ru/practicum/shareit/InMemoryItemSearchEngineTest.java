@@ -0,0 +1,113 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        when(itemRepository.findByAvailableTrue()).thenReturn(List.of(
+                item(1L, "Дрель", "Аккумуляторная дрель", true),
+                item(2L, "Перфоратор", "Ударная дрель для бетона", true),
+                item(3L, "Отвертка", "Крестовая", true)));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_whenPartOfWord_returnsMatchingItemsOrderedById() {
+        List<Item> result = searchEngine.search("дрел", PAGE);
+
+        assertEquals(List.of(1L, 2L), result.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void search_withPage_returnsRequestedSlice() {
+        List<Item> result = searchEngine.search("дрел", PageRequest.of(1, 1));
+
+        assertEquals(List.of(2L), result.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void search_whenSeveralTerms_intersectsResults() {
+        List<Item> result = searchEngine.search("ударная дрель", PAGE);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.getFirst().getId());
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_removesItFromResults() {
+        searchEngine.index(item(1L, "Дрель", "Аккумуляторная дрель", false));
+
+        assertEquals(List.of(2L), searchEngine.search("дрель", PAGE).stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void index_whenItemRenamed_replacesOldTokens() {
+        searchEngine.index(item(3L, "Шуруповерт", "Крестовая", true));
+
+        assertTrue(searchEngine.search("отвертка", PAGE).isEmpty());
+        assertEquals(1, searchEngine.search("шуруп", PAGE).size());
+        assertTrue(searchEngine.footprintBytes() > 0);
+    }
+
+    @Test
+    void search_whenTermShorterThanGram_findsTokensContainingIt() {
+        assertEquals(List.of(1L, 2L), searchEngine.search("ел", PAGE).stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void remove_dropsItemsFromResults() {
+        searchEngine.remove(List.of(1L, 2L));
+
+        assertTrue(searchEngine.search("дрель", PAGE).isEmpty());
+        assertEquals(1, searchEngine.search("крест", PAGE).size());
+    }
+
+    @Test
+    void rebuild_keepsChangesCommittedWhileLoading() {
+        // Вещь снята с доступа, пока перестроение читало из БД старое состояние
+        when(itemRepository.findByAvailableTrue()).thenAnswer(invocation -> {
+            searchEngine.index(item(1L, "Дрель", "Аккумуляторная дрель", false));
+            return List.of(
+                    item(1L, "Дрель", "Аккумуляторная дрель", true),
+                    item(2L, "Перфоратор", "Ударная дрель для бетона", true));
+        });
+
+        searchEngine.rebuild();
+
+        assertEquals(List.of(2L), searchEngine.search("дрель", PAGE).stream().map(Item::getId).toList());
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
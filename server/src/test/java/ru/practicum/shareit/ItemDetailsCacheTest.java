@@ -0,0 +1,70 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemDetailsCacheTest {
+
+    private ItemDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemDetailsCache(2, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void put_whenNotInvalidated_cachesLoadedCard() {
+        long generation = cache.generation(1L);
+
+        cache.put(1L, generation, entry(1L));
+
+        assertTrue(cache.get(1L).isPresent());
+    }
+
+    @Test
+    void put_whenInvalidatedDuringLoad_doesNotCacheStaleCard() {
+        // Изменение вещи закоммичено, пока чтение ещё получало старую карточку
+        long generation = cache.generation(1L);
+        cache.invalidate(1L);
+
+        cache.put(1L, generation, entry(1L));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_whenAllInvalidatedDuringLoad_doesNotCacheStaleCard() {
+        long generation = cache.generation(1L);
+        cache.invalidateAll();
+
+        cache.put(1L, generation, entry(1L));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_whenGenerationTableOverflowsDuringLoad_doesNotCacheStaleCard() {
+        long generation = cache.generation(1L);
+        cache.invalidate(2L);
+        cache.invalidate(3L);
+        cache.invalidate(4L);
+
+        cache.put(1L, generation, entry(1L));
+
+        assertEquals(0, cache.size());
+    }
+
+    private static ItemDetailsCache.Entry entry(Long itemId) {
+        ItemDtoWithDetails details = new ItemDtoWithDetails();
+        details.setId(itemId);
+        return new ItemDetailsCache.Entry(2L, details);
+    }
+}
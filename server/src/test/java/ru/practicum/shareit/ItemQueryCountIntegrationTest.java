@@ -0,0 +1,275 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Проверяет, что число SQL-запросов на эндпоинт не растёт вместе с историей бронирований и отзывов вещи
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemQueryCountIntegrationTest {
+    private static final String ID_USER = "X-Sharer-User-Id";
+    private static final int HISTORY_SIZE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemDetailsCache itemDetailsCache;
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private User owner;
+    private User booker;
+    private Item freshItem;
+    private Item busyItem;
+
+    @BeforeEach
+    void initDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("test-schema.sql"));
+        }
+        // Схема пересоздаётся, идентификаторы вещей повторяются между тестами
+        itemDetailsCache.invalidateAll();
+        owner = userRepository.save(User.builder().name("Owner").email("owner@example.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@example.com").build());
+        freshItem = itemRepository.save(Item.builder()
+                .name("Дрель").description("Новая").available(true).owner(owner).build());
+        busyItem = itemRepository.save(Item.builder()
+                .name("Перфоратор").description("С историей").available(true).owner(owner).build());
+
+        addHistory(freshItem, 1);
+        addHistory(busyItem, HISTORY_SIZE);
+    }
+
+    @Test
+    void getItem_statementCountDoesNotDependOnHistory() throws Exception {
+        long fresh = countStatements(() -> mockMvc.perform(get("/items/{itemId}", freshItem.getId())
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk()));
+        long busy = countStatements(() -> mockMvc.perform(get("/items/{itemId}", busyItem.getId())
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk()));
+
+        assertEquals(fresh, busy);
+        assertTrue(busy <= 4, "Выполнено запросов: " + busy);
+
+        // Повторное чтение обслуживается кэшем карточек: остаются проверка пользователя и бронирования владельца
+        long cached = countStatements(() -> mockMvc.perform(get("/items/{itemId}", busyItem.getId())
+                        .header(ID_USER, owner.getId()))
+                .andExpect(status().isOk()));
+        assertTrue(cached < busy, "Выполнено запросов: " + cached);
+    }
+
+    @Test
+    void updateItem_statementCountDoesNotDependOnHistory() throws Exception {
+        long fresh = countStatements(() -> mockMvc.perform(patch("/items/{itemId}", freshItem.getId())
+                        .header(ID_USER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"available\":false}"))
+                .andExpect(status().isOk()));
+        long busy = countStatements(() -> mockMvc.perform(patch("/items/{itemId}", busyItem.getId())
+                        .header(ID_USER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"available\":false}"))
+                .andExpect(status().isOk()));
+
+        assertEquals(fresh, busy);
+        assertTrue(busy <= 4, "Выполнено запросов: " + busy);
+    }
+
+    @Test
+    void createBooking_statementCountDoesNotDependOnHistory() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+
+        long fresh = countStatements(() -> mockMvc.perform(post("/bookings")
+                        .header(ID_USER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(freshItem, start, end)))
+                .andExpect(status().isCreated()));
+        long busy = countStatements(() -> mockMvc.perform(post("/bookings")
+                        .header(ID_USER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(busyItem, start, end)))
+                .andExpect(status().isCreated()));
+
+        assertEquals(fresh, busy);
+        assertTrue(busy <= 4, "Выполнено запросов: " + busy);
+    }
+
+    @Test
+    void createComment_statementCountIsBounded() throws Exception {
+        long busy = countStatements(() -> mockMvc.perform(post("/items/{itemId}/comment", busyItem.getId())
+                        .header(ID_USER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отлично\"}"))
+                .andExpect(status().isCreated()));
+
+        assertTrue(busy <= 5, "Выполнено запросов: " + busy);
+    }
+
+    @Test
+    void createComment_refreshesCachedItemCardAndETag() throws Exception {
+        String etag = mockMvc.perform(get("/items/{itemId}", freshItem.getId())
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/items/{itemId}/comment", freshItem.getId())
+                        .header(ID_USER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отлично\"}"))
+                .andExpect(status().isCreated());
+
+        // Карточка в кэше сброшена: новый отзыв виден сразу, а старый ETag больше не совпадает
+        mockMvc.perform(get("/items/{itemId}", freshItem.getId())
+                        .header(ID_USER, booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(2))
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void updateUser_refreshesAuthorNameInCachedItemCard() throws Exception {
+        String etag = mockMvc.perform(get("/items/{itemId}", freshItem.getId())
+                        .header(ID_USER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("Author " + freshItem.getId() + "-1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Long authorId = commentRepository.findAll().stream()
+                .filter(comment -> comment.getItem().getId().equals(freshItem.getId()))
+                .findFirst()
+                .orElseThrow()
+                .getAuthor().getId();
+
+        mockMvc.perform(patch("/users/{userId}", authorId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        // Версия вещи не изменилась, но карточка сброшена и ETag учитывает имена авторов
+        mockMvc.perform(get("/items/{itemId}", freshItem.getId())
+                        .header(ID_USER, booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("Renamed"));
+    }
+
+    @Test
+    void getItemsByOwner_weakETagRevalidatesList() throws Exception {
+        String etag = mockMvc.perform(get("/items").header(ID_USER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/items").header(ID_USER, owner.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private void addHistory(Item item, int count) {
+        for (int i = 1; i <= count; i++) {
+            User author = userRepository.save(User.builder()
+                    .name("Author " + item.getId() + "-" + i)
+                    .email("author" + item.getId() + "-" + i + "@example.com")
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().minusDays(2L * i + 1))
+                    .end(LocalDateTime.now().minusDays(2L * i))
+                    .item(item)
+                    .booker(author)
+                    .status(Status.APPROVED)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("Отзыв " + i)
+                    .item(item)
+                    .author(author)
+                    .created(LocalDateTime.now().minusDays(i))
+                    .build());
+        }
+        // Завершённая аренда бронирующего, чтобы он мог оставить отзыв
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(1).minusHours(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+    }
+
+    private String bookingJson(Item item, LocalDateTime start, LocalDateTime end) {
+        return "{\"start\":\"" + start.format(formatter) +
+                "\",\"end\":\"" + end.format(formatter) +
+                "\",\"itemId\":" + item.getId() + "}";
+    }
+
+    private long countStatements(MvcCall call) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.perform();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface MvcCall {
+        void perform() throws Exception;
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemDtoChange;
+import ru.practicum.shareit.request.dto.ItemRequestDtoChange;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Подборка вещей к запросу считается при создании запроса и вещей; в подборке не больше top-n вещей
+@SpringBootTest(properties = "shareit.request-matching.top-n=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemRequestMatchingIntegrationTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User requestor;
+    private User owner;
+
+    @BeforeEach
+    void initDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("test-schema.sql"));
+        }
+        requestor = userRepository.save(User.builder().name("Requestor").email("requestor@example.com").build());
+        owner = userRepository.save(User.builder().name("Owner").email("owner@example.com").build());
+    }
+
+    @Test
+    void suggestions_areMatchedOnRequestAndItemCreation() throws Exception {
+        long drill = createItem(owner, "Дрель ударная", "Мощная дрель для бетона", true);
+        createItem(requestor, "Дрель", "Своя дрель автора запроса", true);
+        long requestId = createRequest("Нужна ударная дрель");
+
+        // Уже существующая вещь подобрана при создании запроса, своя вещь автора не предлагается
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId)
+                        .header(USER_ID, requestor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(drill))
+                .andExpect(jsonPath("$[0].score").value(2))
+                .andExpect(jsonPath("$[0].ownerId").value(owner.getId()));
+
+        long hammer = createItem(owner, "Перфоратор", "Заменит дрель", true);
+        createItem(owner, "Дрель", "Сломана", false);
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId)
+                        .header(USER_ID, requestor.getId()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(drill))
+                .andExpect(jsonPath("$[1].id").value(hammer))
+                .andExpect(jsonPath("$[1].score").value(1));
+
+        // Подборка заполнена: новая вещь с большей оценкой вытесняет самую слабую
+        long secondDrill = createItem(owner, "Ударная дрель", "Для кирпича", true);
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId)
+                        .header(USER_ID, requestor.getId()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(secondDrill))
+                .andExpect(jsonPath("$[1].id").value(drill));
+    }
+
+    @Test
+    void suggestions_areVisibleOnlyToRequestor() throws Exception {
+        long requestId = createRequest("Нужна палатка");
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId)
+                        .header(USER_ID, owner.getId()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId + 1)
+                        .header(USER_ID, requestor.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void suggestions_areRematchedOnItemUpdate() throws Exception {
+        long tent = createItem(owner, "Тент", "Полог от дождя", false);
+        long requestId = createRequest("Нужна туристическая палатка");
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId)
+                        .header(USER_ID, requestor.getId()))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        // Вещь стала доступной и получила подходящее название - попадает в подборку
+        mockMvc.perform(patch("/items/{itemId}", tent)
+                        .header(USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Туристическая палатка\",\"available\":true}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", requestId)
+                        .header(USER_ID, requestor.getId()))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(tent))
+                .andExpect(jsonPath("$[0].score").value(2));
+    }
+
+    private long createRequest(String description) throws Exception {
+        ItemRequestDtoChange dto = ItemRequestDtoChange.builder().description(description).build();
+        MvcResult result = mockMvc.perform(post("/requests")
+                        .header(USER_ID, requestor.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private long createItem(User itemOwner, String name, String description, boolean available) throws Exception {
+        ItemDtoChange dto = ItemDtoChange.builder().name(name).description(description).available(available).build();
+        MvcResult result = mockMvc.perform(post("/items")
+                        .header(USER_ID, itemOwner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
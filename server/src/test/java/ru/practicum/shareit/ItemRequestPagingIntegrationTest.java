@@ -0,0 +1,228 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Страницы /requests/all и /requests должны ограничиваться в SQL: число загруженных сущностей
+// (а с ним и память) не зависит от размера таблицы запросов
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.ItemRequestPagingIntegrationTest$SqlRecorder")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemRequestPagingIntegrationTest {
+    private static final int PAGE_SIZE = 10;
+    private static final Pattern REQUESTS_TABLE = Pattern.compile("\\bfrom\\s+(\\w+\\.)?requests\\b");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User requestor;
+    private User owner;
+    private int created;
+
+    @BeforeEach
+    void initDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("test-schema.sql"));
+        }
+        requestor = userRepository.save(User.builder().name("Requestor").email("requestor@example.com").build());
+        owner = userRepository.save(User.builder().name("Owner").email("owner@example.com").build());
+        created = 0;
+    }
+
+    @Test
+    void getAllRequests_pagesInSqlAndLoadsOnlyPageEntities() throws Exception {
+        addRequests(2 * PAGE_SIZE);
+        long smallTable = loadedEntitiesForFirstPage();
+
+        addRequests(20 * PAGE_SIZE);
+        SqlRecorder.STATEMENTS.clear();
+        long largeTable = loadedEntitiesForFirstPage();
+
+        assertEquals(smallTable, largeTable);
+        // Страница запросов и её вещи читаются проекциями: ни одной управляемой сущности
+        assertEquals(0L, largeTable);
+        assertTrue(SqlRecorder.STATEMENTS.stream().anyMatch(ItemRequestPagingIntegrationTest::isLimitedRequestsQuery),
+                "Выполнены запросы: " + SqlRecorder.STATEMENTS);
+    }
+
+    @Test
+    void getAllRequests_ordersEqualCreatedById() throws Exception {
+        addRequests(4);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE requests SET created = TIMESTAMP '2025-01-01 12:00:00'");
+        }
+
+        mockMvc.perform(get("/requests/all").param("from", "0").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].description").value("Нужна вещь 4"))
+                .andExpect(jsonPath("$.content[1].description").value("Нужна вещь 3"));
+        mockMvc.perform(get("/requests/all").param("from", "2").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].description").value("Нужна вещь 2"))
+                .andExpect(jsonPath("$.content[1].description").value("Нужна вещь 1"));
+    }
+
+    @Test
+    void getRequestsByOwner_pagesInSqlWithoutDistinctJoin() throws Exception {
+        addRequests(2 * PAGE_SIZE);
+        SqlRecorder.STATEMENTS.clear();
+
+        mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", requestor.getId())
+                        .param("from", String.valueOf(PAGE_SIZE))
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PAGE_SIZE))
+                .andExpect(jsonPath("$[0].description").value("Нужна вещь " + PAGE_SIZE))
+                .andExpect(jsonPath("$[0].items.length()").value(1));
+        assertTrue(SqlRecorder.STATEMENTS.stream()
+                        .map(sql -> sql.toLowerCase(Locale.ROOT))
+                        .noneMatch(sql -> sql.contains("distinct")),
+                "Выполнены запросы: " + SqlRecorder.STATEMENTS);
+        assertTrue(SqlRecorder.STATEMENTS.stream().anyMatch(ItemRequestPagingIntegrationTest::isLimitedRequestsQuery),
+                "Выполнены запросы: " + SqlRecorder.STATEMENTS);
+
+        // Без size - все запросы пользователя
+        mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", requestor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2 * PAGE_SIZE));
+
+        // Прямой вызов сервера с size=0 - ошибка клиента, а не деление на ноль
+        mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", requestor.getId())
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scrollAllRequests_walksFeedWithCursorWithoutGapsOrRepeats() throws Exception {
+        addRequests(5);
+
+        MvcResult firstPage = mockMvc.perform(get("/requests/all")
+                        .param("before", "")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].description").value("Нужна вещь 5"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        // Новый запрос после первой страницы не сдвигает ленту
+        addRequests(1);
+
+        mockMvc.perform(get("/requests/all")
+                        .param("before", cursor)
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].description").value("Нужна вещь 2"))
+                .andExpect(jsonPath("$.content[1].description").value("Нужна вещь 1"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    // Таблица может быть указана со схемой (public.requests из @Table(schema = "public"))
+    private static boolean isLimitedRequestsQuery(String sql) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        return REQUESTS_TABLE.matcher(lower).find()
+                && (lower.contains(" limit ") || lower.contains(" fetch first "));
+    }
+
+    private long loadedEntitiesForFirstPage() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/requests/all")
+                        .param("from", "0")
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PAGE_SIZE))
+                .andExpect(jsonPath("$.content[0].items.length()").value(1));
+        return statistics.getEntityLoadCount();
+    }
+
+    // Каждый запрос с одной вещью, созданной в ответ на него
+    private void addRequests(int count) {
+        for (int i = 0; i < count; i++) {
+            created++;
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Нужна вещь " + created)
+                    .requestor(requestor)
+                    .build());
+            itemRepository.save(Item.builder()
+                    .name("Вещь " + created)
+                    .description("Ответ на запрос " + created)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
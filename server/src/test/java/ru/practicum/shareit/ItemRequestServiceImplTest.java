@@ -9,17 +9,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.BadInputException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.ItemRequestView;
+import ru.practicum.shareit.request.ItemSuggestionRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDtoChange;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -32,8 +37,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -44,12 +49,21 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceCache userExistenceCache;
+
+    @Mock
+    private ItemRepository itemRepository;
+
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
     @Mock
     private ItemRequestMapper itemRequestMapper;
 
+    @Mock
+    private ItemSuggestionRepository itemSuggestionRepository;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -57,9 +71,10 @@ class ItemRequestServiceImplTest {
     private final ItemRequestDtoChange requestDto = new ItemRequestDtoChange("Test description",
             null, null);
     private final ItemRequest request = new ItemRequest(1L, "Test description", user,
-            LocalDateTime.now(), Collections.<Item>emptyList());
+            LocalDateTime.now(), 0L, Collections.<Item>emptyList());
     private final ItemRequestDtoResponse responseDto = new ItemRequestDtoResponse(1L,
-            "Test description", LocalDateTime.now(), Collections.<ItemForRequestDto>emptyList());
+            "Test description", LocalDateTime.now(), Collections.<ItemForRequestDto>emptyList(), 0L);
+    private final ItemRequestView requestView = view(request);
 
     @Test
     void create_shouldCreateRequestWhenUserExists() {
@@ -97,32 +112,33 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestsByOwner_shouldReturnRequestsWhenUserExists() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRequestRepository.findByRequestorIdWithItems(anyLong())).thenReturn(List.of(request));
-        when(itemRequestMapper.toItemRequestDtoResponse(any(ItemRequest.class))).thenReturn(responseDto);
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(user.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(requestView));
+        when(itemRepository.findForRequestByRequestIdIn(List.of(request.getId()))).thenReturn(Collections.emptyList());
+        when(itemRequestMapper.toItemRequestDtoResponse(requestView, Collections.emptyList())).thenReturn(responseDto);
 
-        List<ItemRequestDtoResponse> result = itemRequestService.getRequestsByOwner(user.getId());
+        List<ItemRequestDtoResponse> result = itemRequestService.getRequestsByOwner(user.getId(), 0, 10);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(responseDto.getId(), result.getFirst().getId());
 
-        verify(userRepository).existsById(user.getId());
-        verify(itemRequestRepository).findByRequestorIdWithItems(user.getId());
-        verify(itemRequestMapper).toItemRequestDtoResponse(request);
+        verify(userExistenceCache).exists(user.getId());
+        verify(itemRepository).findForRequestByRequestIdIn(List.of(request.getId()));
     }
 
     @Test
     void getRequestsByOwner_shouldThrowWhenUserNotFound() {
         Long userId = 999L;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         DataNotFoundException exception = assertThrows(
                 DataNotFoundException.class,
-                () -> itemRequestService.getRequestsByOwner(userId)
+                () -> itemRequestService.getRequestsByOwner(userId, 0, null)
         );
         assertEquals("Пользователь с id " + userId + " не найден", exception.getMessage());
-        verify(userRepository).existsById(userId);
+        verify(userExistenceCache).exists(userId);
         verifyNoInteractions(itemRequestRepository, itemRequestMapper);
     }
 
@@ -133,20 +149,21 @@ class ItemRequestServiceImplTest {
         int size = 10;
 
         // Создаем объект пагинации
-        Pageable pageable = PageRequest.of(from / size, size,
-                Sort.by(Sort.Direction.DESC, "created"));
+        Pageable pageable = PageRequest.of(from / size, size);
 
         // Создаем страницу с одним запросом
-        Page<ItemRequest> requestPage = new PageImpl<>(
-                List.of(request),
+        Page<ItemRequestView> requestPage = new PageImpl<>(
+                List.of(requestView),
                 pageable,
                 1
         );
 
         // Мокирование
-        when(itemRequestRepository.findAllByOrderByCreatedDesc(pageable))
+        when(itemRequestRepository.findAllByOrderByCreatedDescIdDesc(pageable))
                 .thenReturn(requestPage);
-        when(itemRequestMapper.toItemRequestDtoResponse(any(ItemRequest.class)))
+        when(itemRepository.findForRequestByRequestIdIn(List.of(request.getId())))
+                .thenReturn(Collections.emptyList());
+        when(itemRequestMapper.toItemRequestDtoResponse(any(ItemRequestView.class), anyList()))
                 .thenReturn(responseDto);
 
         // Вызов тестируемого метода
@@ -160,15 +177,17 @@ class ItemRequestServiceImplTest {
         assertEquals(responseDto.getId(), result.getContent().getFirst().getId());
 
         // Проверка взаимодействий
-        verify(itemRequestRepository).findAllByOrderByCreatedDesc(pageable);
-        verify(itemRequestMapper).toItemRequestDtoResponse(request);
+        verify(itemRequestRepository).findAllByOrderByCreatedDescIdDesc(pageable);
+        verify(itemRepository).findForRequestByRequestIdIn(List.of(request.getId()));
+        verify(itemRequestMapper).toItemRequestDtoResponse(requestView, Collections.emptyList());
     }
 
     @Test
     void getRequestById_shouldReturnRequestWhenExists() {
         Long requestId = 1L;
-        when(itemRequestRepository.findByIdWithItems(anyLong())).thenReturn(Optional.of(request));
-        when(itemRequestMapper.toItemRequestDtoResponse(any(ItemRequest.class))).thenReturn(responseDto);
+        when(itemRequestRepository.findViewById(anyLong())).thenReturn(Optional.of(requestView));
+        when(itemRepository.findForRequestByRequestIdIn(List.of(requestId))).thenReturn(Collections.emptyList());
+        when(itemRequestMapper.toItemRequestDtoResponse(requestView, Collections.emptyList())).thenReturn(responseDto);
 
         ItemRequestDtoResponse result = itemRequestService.getRequestById(requestId);
 
@@ -176,14 +195,14 @@ class ItemRequestServiceImplTest {
         assertEquals(responseDto.getId(), result.getId());
         assertEquals(responseDto.getDescription(), result.getDescription());
 
-        verify(itemRequestRepository).findByIdWithItems(requestId);
-        verify(itemRequestMapper).toItemRequestDtoResponse(request);
+        verify(itemRequestRepository).findViewById(requestId);
+        verify(itemRequestMapper).toItemRequestDtoResponse(requestView, Collections.emptyList());
     }
 
     @Test
     void getRequestById_shouldThrowWhenRequestNotFound() {
         Long requestId = 999L;
-        when(itemRequestRepository.findByIdWithItems(requestId)).thenReturn(Optional.empty());
+        when(itemRequestRepository.findViewById(requestId)).thenReturn(Optional.empty());
 
         DataNotFoundException exception = assertThrows(
                 DataNotFoundException.class,
@@ -191,27 +210,81 @@ class ItemRequestServiceImplTest {
         );
 
         assertEquals("Запрос с id " + requestId + " не найден", exception.getMessage());
-        verify(itemRequestRepository).findByIdWithItems(requestId);
-        verify(itemRequestMapper, never()).toItemRequestDtoResponse(any());
+        verify(itemRequestRepository).findViewById(requestId);
+        verifyNoInteractions(itemRepository, itemRequestMapper);
     }
 
     @Test
     void getRequestById_shouldIncludeItemsWhenAvailable() {
         // Подготовка данных с предметами
-        ItemRequest requestWithItems = new ItemRequest(1L, "Test description",
-                user, LocalDateTime.now(), List.of(new Item()));
+        List<ItemForRequestDto> items = List.of(new ItemForRequestDto(5L, "Дрель", "Ударная", true, 1L));
         ItemRequestDtoResponse responseWithItems = new ItemRequestDtoResponse(1L,
-                "Test description", LocalDateTime.now(), List.of(new ItemForRequestDto()));
+                "Test description", LocalDateTime.now(), items, 0L);
 
-        when(itemRequestRepository.findByIdWithItems(anyLong())).thenReturn(Optional.of(requestWithItems));
-        when(itemRequestMapper.toItemRequestDtoResponse(requestWithItems)).thenReturn(responseWithItems);
+        when(itemRequestRepository.findViewById(anyLong())).thenReturn(Optional.of(requestView));
+        when(itemRepository.findForRequestByRequestIdIn(List.of(1L))).thenReturn(items);
+        when(itemRequestMapper.toItemRequestDtoResponse(requestView, items)).thenReturn(responseWithItems);
 
         ItemRequestDtoResponse result = itemRequestService.getRequestById(1L);
 
         assertNotNull(result);
         assertFalse(result.getItems().isEmpty());
 
-        verify(itemRequestRepository).findByIdWithItems(1L);
-        verify(itemRequestMapper).toItemRequestDtoResponse(requestWithItems);
+        verify(itemRequestRepository).findViewById(1L);
+        verify(itemRequestMapper).toItemRequestDtoResponse(requestView, items);
+    }
+
+    @Test
+    void getSuggestions_shouldReadStoredSuggestionsForRequestor() {
+        ItemSuggestionDto suggestion = new ItemSuggestionDto(5L, "Дрель", "Ударная дрель", 2L, 2);
+        when(userExistenceCache.exists(user.getId())).thenReturn(true);
+        when(itemRequestRepository.findRequestorIdById(request.getId())).thenReturn(Optional.of(user.getId()));
+        when(itemSuggestionRepository.findSuggestions(request.getId())).thenReturn(List.of(suggestion));
+
+        List<ItemSuggestionDto> result = itemRequestService.getSuggestions(user.getId(), request.getId());
+
+        assertEquals(List.of(suggestion), result);
+    }
+
+    @Test
+    void getSuggestions_shouldRejectOtherUsers() {
+        Long otherUserId = 2L;
+        when(userExistenceCache.exists(otherUserId)).thenReturn(true);
+        when(itemRequestRepository.findRequestorIdById(request.getId())).thenReturn(Optional.of(user.getId()));
+
+        assertThrows(BadInputException.class,
+                () -> itemRequestService.getSuggestions(otherUserId, request.getId()));
+        verifyNoInteractions(itemSuggestionRepository);
+    }
+
+    @Test
+    void scrollAllRequests_whenSizeIsZero_throwsBadInput() {
+        // Прямой вызов сервера с size=0: ошибка клиента, а не IllegalArgumentException из Limit.of и ответ 500
+        assertThrows(BadInputException.class, () -> itemRequestService.scrollAllRequests(null, 0));
+        verifyNoInteractions(itemRequestRepository);
+    }
+
+    private static ItemRequestView view(ItemRequest request) {
+        return new ItemRequestView() {
+            @Override
+            public Long getId() {
+                return request.getId();
+            }
+
+            @Override
+            public String getDescription() {
+                return request.getDescription();
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return request.getCreated();
+            }
+
+            @Override
+            public Long getVersion() {
+                return request.getVersion();
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -5,21 +5,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingInterval;
+import ru.practicum.shareit.booking.BookingIntervalCache;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.exception.BadInputException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDetailsCache;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
 import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoChange;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.dto.ItemDtoWithDetails;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -33,6 +41,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -48,12 +58,24 @@ class ItemServiceImplUnitTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceCache userExistenceCache;
+
     @Mock
     private BookingRepository bookingRepository;
 
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -69,7 +91,7 @@ class ItemServiceImplUnitTest {
         Item savedItem = new Item();
         savedItem.setId(1L);
         ItemDtoResponse expectedResponse = new ItemDtoResponse(1L, "Дрель",
-                "Аккумуляторная дрель", true, null);
+                "Аккумуляторная дрель", true, null, null);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemMapper.toItem(owner, requestDto)).thenReturn(newItem);
@@ -124,10 +146,10 @@ class ItemServiceImplUnitTest {
         updateDto.setName("Новое название");
 
         ItemDtoResponse expectedResponse = new ItemDtoResponse(itemId, "Новое название",
-                "Старое описание", true, null);
+                "Старое описание", true, null, null);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(existingItem));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(existingItem));
         when(itemMapper.toItemDtoResponse(existingItem)).thenReturn(expectedResponse);
 
         ItemDtoResponse actualResponse = itemService.update(userId, itemId, updateDto);
@@ -136,7 +158,7 @@ class ItemServiceImplUnitTest {
         assertEquals("Новое название", actualResponse.getName());
         assertEquals("Старое описание", actualResponse.getDescription());
 
-        verify(itemRepository).findById(itemId);
+        verify(itemRepository).findForUpdateById(itemId);
     }
 
     @Test
@@ -145,7 +167,7 @@ class ItemServiceImplUnitTest {
         Long itemId = 1L;
         ItemDtoChange updateDto = new ItemDtoChange();
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
 
         BadInputException exception = assertThrows(
                 BadInputException.class,
@@ -172,8 +194,8 @@ class ItemServiceImplUnitTest {
         ItemDtoChange updateDto = new ItemDtoChange();
         updateDto.setName("Новое название");
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(existingItem));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(existingItem));
 
         BadInputException exception = assertThrows(
                 BadInputException.class,
@@ -188,27 +210,82 @@ class ItemServiceImplUnitTest {
         Long userId = 1L;
         Long itemId = 1L;
 
-        User user = new User();
-        user.setId(userId);
+        User owner = new User();
+        owner.setId(2L);
 
         Item item = new Item();
         item.setId(itemId);
+        item.setOwner(owner);
 
         ItemDtoWithDetails expectedDto = new ItemDtoWithDetails();
         expectedDto.setId(itemId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(itemMapper.toItemDtoWithDetails(user, item)).thenReturn(expectedDto);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.findWithCommentsById(itemId)).thenReturn(Optional.of(item));
+        when(itemMapper.toItemDtoWithDetails(item)).thenReturn(expectedDto);
 
         ItemDtoWithDetails actualDto = itemService.getItemById(userId, itemId);
 
         assertNotNull(actualDto);
         assertEquals(itemId, actualDto.getId());
 
-        verify(userRepository).findById(userId);
-        verify(itemRepository).findById(itemId);
-        verify(itemMapper).toItemDtoWithDetails(user, item);
+        verify(userExistenceCache).exists(userId);
+        verify(itemRepository).findWithCommentsById(itemId);
+        verify(itemMapper).toItemDtoWithDetails(item);
+        verify(itemDetailsCache).put(eq(itemId), anyLong(), any());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getItemById_whenCached_doesNotLoadItem() {
+        Long userId = 1L;
+        Long itemId = 1L;
+
+        ItemDtoWithDetails cachedDto = new ItemDtoWithDetails();
+        cachedDto.setId(itemId);
+        cachedDto.setComments(Collections.emptyList());
+
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemDetailsCache.get(itemId)).thenReturn(Optional.of(new ItemDetailsCache.Entry(2L, cachedDto)));
+
+        ItemDtoWithDetails actualDto = itemService.getItemById(userId, itemId);
+
+        assertEquals(itemId, actualDto.getId());
+        verifyNoInteractions(itemRepository);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getItemById_whenOwner_addsLastAndNextBookings() {
+        Long userId = 1L;
+        Long itemId = 1L;
+
+        User owner = new User();
+        owner.setId(userId);
+        User booker = new User();
+        booker.setId(2L);
+
+        Item item = new Item();
+        item.setId(itemId);
+        item.setOwner(owner);
+
+        Booking last = Booking.builder().id(10L).booker(booker).item(item)
+                .start(LocalDateTime.now().minusDays(2)).end(LocalDateTime.now().minusDays(1))
+                .status(Status.APPROVED).build();
+        Booking next = Booking.builder().id(20L).booker(booker).item(item)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
+                .status(Status.APPROVED).build();
+
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.findWithCommentsById(itemId)).thenReturn(Optional.of(item));
+        when(itemMapper.toItemDtoWithDetails(item)).thenReturn(new ItemDtoWithDetails());
+        when(bookingRepository.findLastAndNextApproved(any(), any())).thenReturn(List.of(last, next));
+
+        ItemDtoWithDetails actualDto = itemService.getItemById(userId, itemId);
+
+        assertEquals(10L, actualDto.getLastBooking().getId());
+        assertEquals(20L, actualDto.getNextBooking().getId());
+        assertEquals(2L, actualDto.getNextBooking().getBookerId());
     }
 
     @Test
@@ -216,7 +293,7 @@ class ItemServiceImplUnitTest {
         Long userId = 9999L;
         Long itemId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         DataNotFoundException exception = assertThrows(
                 DataNotFoundException.class,
@@ -224,7 +301,7 @@ class ItemServiceImplUnitTest {
         );
 
         assertEquals("Пользователь с id 9999 не найден", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userExistenceCache).exists(userId);
         verifyNoInteractions(itemRepository);
     }
 
@@ -233,11 +310,8 @@ class ItemServiceImplUnitTest {
         Long userId = 1L;
         Long itemId = 9999L;
 
-        User user = new User();
-        user.setId(userId);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.findWithCommentsById(itemId)).thenReturn(Optional.empty());
 
         DataNotFoundException exception = assertThrows(
                 DataNotFoundException.class,
@@ -245,28 +319,28 @@ class ItemServiceImplUnitTest {
         );
 
         assertEquals("Вещь с id 9999 не найдена", exception.getMessage());
-        verify(itemRepository).findById(itemId);
+        verify(itemRepository).findWithCommentsById(itemId);
     }
 
     @Test
     void getItemsByOwner_whenUserNotFound_throwsException() {
         Long userId = 99L;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(DataNotFoundException.class, () -> itemService.getItemsByOwner(userId));
-        verify(userRepository).existsById(userId);
+        verify(userExistenceCache).exists(userId);
     }
 
     @Test
     void getItemsByOwner_whenNoItems_returnsEmptyList() {
         Long userId = 1L;
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(itemRepository.findByOwnerId(userId)).thenReturn(Collections.emptyList());
 
         List<ItemDtoShort> result = itemService.getItemsByOwner(userId);
 
         assertTrue(result.isEmpty());
-        verify(userRepository).existsById(userId);
+        verify(userExistenceCache).exists(userId);
         verify(itemRepository).findByOwnerId(userId);
     }
 
@@ -278,9 +352,9 @@ class ItemServiceImplUnitTest {
         item.setName("Дрель");
         item.setDescription("Аккумуляторная дрель");
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(itemRepository.findByOwnerId(userId)).thenReturn(List.of(item));
-        when(bookingRepository.findByItemIdIn(any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastAndNextApproved(any(), any())).thenReturn(Collections.emptyList());
 
         List<ItemDtoShort> result = itemService.getItemsByOwner(userId);
 
@@ -288,7 +362,7 @@ class ItemServiceImplUnitTest {
         ItemDtoShort dto = result.getFirst();
         assertNull(dto.getLastBooking());
         assertNull(dto.getNextBooking());
-        verify(bookingRepository).findByItemIdIn(List.of(1L));
+        verify(bookingRepository).findLastAndNextApproved(eq(List.of(1L)), any());
     }
 
     @Test
@@ -328,9 +402,10 @@ class ItemServiceImplUnitTest {
         nextBooking.setEnd(now.plusDays(2));
         nextBooking.setStatus(Status.APPROVED);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(itemRepository.findByOwnerId(userId)).thenReturn(List.of(item));
-        when(bookingRepository.findByItemIdIn(List.of(1L))).thenReturn(List.of(lastBooking, nextBooking));
+        when(bookingRepository.findLastAndNextApproved(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
 
         List<ItemDtoShort> result = itemService.getItemsByOwner(userId);
 
@@ -353,22 +428,32 @@ class ItemServiceImplUnitTest {
     @Test
     void searchItems_whenTextIsBlank_returnsEmptyList() {
         Long userId = 1L;
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
 
-        List<ItemDtoResponse> result = itemService.searchItems(userId, "   ");
+        List<ItemDtoResponse> result = itemService.searchItems(userId, "   ", 0, 10);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void searchItems_whenPageParamsInvalid_throwsBadInput() {
+        Long userId = 1L;
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+
+        assertThrows(BadInputException.class, () -> itemService.searchItems(userId, "дрель", 0, 0));
+        assertThrows(BadInputException.class, () -> itemService.searchItems(userId, "дрель", -1, 10));
+        verifyNoInteractions(itemSearchEngine);
+    }
+
     @Test
     void searchItems_whenNoMatchingItems_returnsEmptyList() {
         Long userId = 1L;
         String text = "дрель";
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.searchAvailableItems(text.toLowerCase())).thenReturn(Collections.emptyList());
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemSearchEngine.search(text.toLowerCase(), PageRequest.of(0, 10))).thenReturn(Collections.emptyList());
 
-        List<ItemDtoResponse> result = itemService.searchItems(userId, text);
+        List<ItemDtoResponse> result = itemService.searchItems(userId, text, 0, 10);
         assertTrue(result.isEmpty());
-        verify(itemRepository).searchAvailableItems(text.toLowerCase());
+        verify(itemSearchEngine).search(text.toLowerCase(), PageRequest.of(0, 10));
     }
 
     @Test
@@ -381,20 +466,75 @@ class ItemServiceImplUnitTest {
         item2.setId(2L);
 
         ItemDtoResponse dto1 = new ItemDtoResponse(1L, "Дрель", "Профессиональная",
-                true, null);
+                true, null, null);
         ItemDtoResponse dto2 = new ItemDtoResponse(2L, "Дрель-шуруповерт", "Аккумуляторная",
-                true, null);
+                true, null, null);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.searchAvailableItems(text.toLowerCase())).thenReturn(List.of(item1, item2));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemSearchEngine.search(text.toLowerCase(), PageRequest.of(0, 10))).thenReturn(List.of(item1, item2));
         when(itemMapper.toItemDtoResponse(item1)).thenReturn(dto1);
         when(itemMapper.toItemDtoResponse(item2)).thenReturn(dto2);
 
-        List<ItemDtoResponse> result = itemService.searchItems(userId, text);
+        List<ItemDtoResponse> result = itemService.searchItems(userId, text, 0, 10);
 
         assertEquals(2, result.size());
         assertEquals(dto1, result.get(0));
         assertEquals(dto2, result.get(1));
         verify(itemMapper, times(2)).toItemDtoResponse(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchItems_whenSizeAboveLimit_capsPageSize() {
+        Long userId = 1L;
+        String text = "дрель";
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemSearchEngine.search(text, PageRequest.of(0, ItemServiceImpl.MAX_SEARCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemDtoResponse> result = itemService.searchItems(userId, text, 0, 10_000);
+
+        assertTrue(result.isEmpty());
+        verify(itemSearchEngine).search(text, PageRequest.of(0, ItemServiceImpl.MAX_SEARCH_SIZE));
+    }
+
+    @Test
+    void getAvailability_splitsPeriodIntoBusyAndFreeWindows() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(itemRepository.existsById(2L)).thenReturn(true);
+        when(bookingIntervalCache.findApproved(2L, from, to)).thenReturn(List.of(
+                interval(from.minusDays(1), from.plusDays(2)),
+                interval(from.plusDays(4), from.plusDays(5))));
+
+        ItemAvailabilityDto result = itemService.getAvailability(1L, 2L, from, to);
+
+        assertEquals(List.of(new AvailabilityWindowDto(from, from.plusDays(2)),
+                new AvailabilityWindowDto(from.plusDays(4), from.plusDays(5))), result.getBusy());
+        assertEquals(List.of(new AvailabilityWindowDto(from.plusDays(2), from.plusDays(4)),
+                new AvailabilityWindowDto(from.plusDays(5), to)), result.getFree());
+    }
+
+    @Test
+    void getAvailability_whenPeriodIsEmpty_throwsBadInput() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+
+        assertThrows(BadInputException.class, () -> itemService.getAvailability(1L, 2L, from, from));
+        verifyNoInteractions(bookingIntervalCache);
+    }
+
+    private static BookingInterval interval(LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval() {
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.dto.CommentDtoChange;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoChange;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Запись, увеличивающая версию вещи или запроса, ждёт параллельную запись вместо ошибки 409
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemVersionConcurrencyIntegrationTest {
+    private static final long HOLD_MILLIS = 200;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemDetailsCache itemDetailsCache;
+
+    private User owner;
+    private User firstBooker;
+    private User secondBooker;
+    private Item item;
+
+    @BeforeEach
+    void initDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("test-schema.sql"));
+        }
+        itemDetailsCache.invalidateAll();
+        owner = userRepository.save(User.builder().name("Owner").email("owner@example.com").build());
+        firstBooker = userRepository.save(User.builder().name("First").email("first@example.com").build());
+        secondBooker = userRepository.save(User.builder().name("Second").email("second@example.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель").description("Ударная").available(true).owner(owner).build());
+        addFinishedBooking(firstBooker, 4);
+        addFinishedBooking(secondBooker, 2);
+    }
+
+    @Test
+    void createComment_whenConcurrentCommentOnSameItem_bothSucceed() throws Exception {
+        long version = currentItemVersion();
+
+        runOverlapping(
+                () -> itemService.createComment(item.getId(), firstBooker.getId(), comment("Первый")),
+                () -> itemService.createComment(item.getId(), secondBooker.getId(), comment("Второй")));
+
+        assertEquals(2, commentRepository.count());
+        assertEquals(version + 2, currentItemVersion());
+    }
+
+    @Test
+    void update_whenConcurrentCommentOnSameItem_bothSucceed() throws Exception {
+        long version = currentItemVersion();
+
+        runOverlapping(
+                () -> itemService.createComment(item.getId(), firstBooker.getId(), comment("Отзыв")),
+                () -> itemService.update(owner.getId(), item.getId(),
+                        ItemDtoChange.builder().description("Ударная, с кейсом").build()));
+
+        assertEquals(1, commentRepository.count());
+        assertEquals("Ударная, с кейсом", itemRepository.findById(item.getId()).orElseThrow().getDescription());
+        assertEquals(version + 2, currentItemVersion());
+    }
+
+    @Test
+    void create_whenTwoOwnersAnswerSameRequest_bothSucceed() throws Exception {
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна стремянка").requestor(firstBooker).build());
+        long version = request.getVersion();
+
+        runOverlapping(
+                () -> itemService.create(owner.getId(), answer(request, "Стремянка")),
+                () -> itemService.create(secondBooker.getId(), answer(request, "Лестница")));
+
+        assertEquals(3, itemRepository.count());
+        assertEquals(version + 2, itemRequestRepository.findById(request.getId()).orElseThrow().getVersion());
+    }
+
+    // Первая запись выполняется в транзакции, которая остаётся открытой, пока вторая не завершится
+    // (или HOLD_MILLIS, если вторая ждёт блокировку). Без блокировки вторая успела бы закоммитить
+    // свою версию, и коммит первой завершился бы ошибкой оптимистической блокировки
+    private void runOverlapping(Runnable first, Runnable second) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> firstResult = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                first.run();
+                firstWritten.countDown();
+                await(secondDone);
+            }));
+            assertTrue(firstWritten.await(5, TimeUnit.SECONDS));
+            Future<?> secondResult = executor.submit(() -> {
+                try {
+                    second.run();
+                } finally {
+                    secondDone.countDown();
+                }
+            });
+            firstResult.get(10, TimeUnit.SECONDS);
+            secondResult.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(HOLD_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long currentItemVersion() {
+        return itemRepository.findById(item.getId()).orElseThrow().getVersion();
+    }
+
+    private void addFinishedBooking(User booker, int daysAgo) {
+        LocalDateTime start = LocalDateTime.now().minusDays(daysAgo);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+    }
+
+    private static CommentDtoChange comment(String text) {
+        return CommentDtoChange.builder().text(text).build();
+    }
+
+    private static ItemDtoChange answer(ItemRequest request, String name) {
+        return ItemDtoChange.builder()
+                .name(name)
+                .description("В ответ на запрос")
+                .available(true)
+                .requestId(request.getId())
+                .build();
+    }
+}
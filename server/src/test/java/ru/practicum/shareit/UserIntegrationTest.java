@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.test.context.ActiveProfiles;
@@ -28,6 +29,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -191,4 +194,83 @@ class UserIntegrationTest {
         // Проверяем количество элементов на странице
         assertEquals(2, pageResponse.getContent().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        UserDtoChange createDto = new UserDtoChange();
+        createDto.setEmail("etag-user@example.com");
+        createDto.setName("Etag User");
+        MvcResult createResult = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long userId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        String etag = mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Совпадающий ETag - 304 без тела
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // После изменения старый ETag больше не совпадает
+        UserDtoChange updateDto = new UserDtoChange();
+        updateDto.setName("Renamed Etag User");
+        mockMvc.perform(patch("/users/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed Etag User"));
+    }
+
+    @Test
+    void deleteUser_changesEtagOfRequestAnsweredByTheirItem() throws Exception {
+        Long requestorId = createUser("requestor@example.com");
+        Long ownerId = createUser("owner@example.com");
+        MvcResult requestResult = mockMvc.perform(post("/requests")
+                        .header("X-Sharer-User-Id", requestorId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Нужна стремянка\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long requestId = objectMapper.readTree(requestResult.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Стремянка\",\"description\":\"Три ступени\",\"available\":true,"
+                                + "\"requestId\":" + requestId + "}"))
+                .andExpect(status().isCreated());
+
+        String etag = mockMvc.perform(get("/requests/{requestId}", requestId).header("X-Sharer-User-Id", requestorId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Вещи владельца удаляются каскадом в БД, версия запроса при этом не меняется
+        mockMvc.perform(delete("/users/{userId}", ownerId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/requests/{requestId}", requestId)
+                        .header("X-Sharer-User-Id", requestorId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    private Long createUser(String email) throws Exception {
+        UserDtoChange createDto = new UserDtoChange();
+        createDto.setEmail(email);
+        createDto.setName("User " + email);
+        MvcResult createResult = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
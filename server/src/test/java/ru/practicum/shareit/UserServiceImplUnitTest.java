@@ -10,8 +10,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingIntervalCache;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
@@ -44,6 +48,18 @@ class UserServiceImplUnitTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -60,7 +76,7 @@ class UserServiceImplUnitTest {
         savedUser.setName("Ivan Ivanov");
         savedUser.setEmail("ivan@example.com");
 
-        UserDtoResponse expectedResponse = new UserDtoResponse(1L, "Ivan Ivanov", "ivan@example.com");
+        UserDtoResponse expectedResponse = new UserDtoResponse(1L, "Ivan Ivanov", "ivan@example.com", 0L);
 
         // Мокирование
         when(userRepository.existsByEmail("ivan@example.com")).thenReturn(false);
@@ -109,7 +125,7 @@ class UserServiceImplUnitTest {
         existingUser.setName("Ivan Original");
         existingUser.setEmail("original@example.com");
 
-        UserDtoResponse expectedResponse = new UserDtoResponse(userId, "Ivan Updated", "updated@example.com");
+        UserDtoResponse expectedResponse = new UserDtoResponse(userId, "Ivan Updated", "updated@example.com", 0L);
 
         // Мокирование
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
@@ -138,7 +154,7 @@ class UserServiceImplUnitTest {
         existingUser.setName("Ivan Original");
         existingUser.setEmail("ivan@example.com");
 
-        UserDtoResponse expectedResponse = new UserDtoResponse(userId, "Ivan Updated", "ivan@example.com");
+        UserDtoResponse expectedResponse = new UserDtoResponse(userId, "Ivan Updated", "ivan@example.com", 0L);
 
         // Мокирование
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
@@ -239,8 +255,8 @@ class UserServiceImplUnitTest {
         user2.setName("Petr Petrov");
         user2.setEmail("petr@example.com");
 
-        UserDtoResponse dto1 = new UserDtoResponse(1L, "Ivan Ivanov", "ivan@example.com");
-        UserDtoResponse dto2 = new UserDtoResponse(2L, "Petr Petrov", "petr@example.com");
+        UserDtoResponse dto1 = new UserDtoResponse(1L, "Ivan Ivanov", "ivan@example.com", 0L);
+        UserDtoResponse dto2 = new UserDtoResponse(2L, "Petr Petrov", "petr@example.com", 0L);
 
         Page<User> userPage = new PageImpl<>(
                 List.of(user1, user2),
@@ -273,7 +289,7 @@ class UserServiceImplUnitTest {
         user.setId(userId);
         user.setName("Ivan Ivanov");
         user.setEmail("ivan@example.com");
-        UserDtoResponse expectedResponse = new UserDtoResponse(userId, "Ivan Ivanov", "ivan@example.com");
+        UserDtoResponse expectedResponse = new UserDtoResponse(userId, "Ivan Ivanov", "ivan@example.com", 0L);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(userMapper.toUserDtoResponse(user)).thenReturn(expectedResponse);
@@ -308,11 +324,13 @@ class UserServiceImplUnitTest {
         Long userId = 1L;
 
         when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRepository.findIdsByOwnerId(userId)).thenReturn(List.of(10L, 11L));
 
         userService.deleteUser(userId);
 
         verify(userRepository).existsById(userId);
         verify(userRepository).deleteById(userId);
+        verify(itemSearchEngine).remove(List.of(10L, 11L));
     }
 
     @Test
@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS request_suggestions;
+DROP TABLE IF EXISTS request_terms;
 DROP TABLE IF EXISTS booking;
 DROP TABLE IF EXISTS comments;
 DROP TABLE IF EXISTS items;
@@ -8,6 +10,7 @@ CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(255) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
@@ -16,6 +19,7 @@ CREATE TABLE IF NOT EXISTS requests (
   description TEXT NOT NULL,
   requestor_id BIGINT NOT NULL,
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT fk_request_user FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
@@ -24,6 +28,7 @@ CREATE TABLE IF NOT EXISTS items
     name VARCHAR(255) NOT NULL,
     description TEXT NOT NULL,
     available BOOLEAN NOT NULL DEFAULT TRUE,
+    version BIGINT NOT NULL DEFAULT 0,
     owner_id BIGINT,
     request_id BIGINT,
     CONSTRAINT fk_item_user FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -37,6 +42,7 @@ CREATE TABLE IF NOT EXISTS items
    item_id BIGINT NOT NULL,
    booker_id BIGINT NOT NULL,
    status VARCHAR(9) NOT NULL DEFAULT 'WAITING' CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED')),
+   version BIGINT NOT NULL DEFAULT 0,
    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
    CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
    CONSTRAINT chk_booking_dates CHECK (end_lease > start_lease)
@@ -52,10 +58,34 @@ CREATE TABLE IF NOT EXISTS items
    CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
    );
 
+CREATE TABLE IF NOT EXISTS request_terms (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  request_id BIGINT NOT NULL,
+  term VARCHAR(64) NOT NULL,
+  CONSTRAINT fk_request_term_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+  CONSTRAINT uq_request_term UNIQUE (request_id, term)
+);
+
+CREATE TABLE IF NOT EXISTS request_suggestions (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  request_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  score INTEGER NOT NULL,
+  CONSTRAINT fk_suggestion_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+  CONSTRAINT fk_suggestion_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT uq_request_suggestion UNIQUE (request_id, item_id)
+);
+
 CREATE INDEX idx_items_owner_id ON items(owner_id);
 CREATE INDEX idx_items_request_id ON items(request_id);
-CREATE INDEX idx_requests_requestor_id ON requests(requestor_id);
-CREATE INDEX idx_booking_booker_id ON booking(booker_id);
-CREATE INDEX idx_booking_item_id ON booking(item_id);
+CREATE INDEX idx_requests_requestor_created ON requests(requestor_id, created DESC, id DESC);
+CREATE INDEX idx_requests_created_id ON requests(created DESC, id DESC);
+CREATE INDEX idx_request_terms_term_request ON request_terms(term, request_id);
+CREATE INDEX idx_request_suggestions_request_score ON request_suggestions(request_id, score DESC, item_id DESC);
+CREATE INDEX idx_request_suggestions_item_id ON request_suggestions(item_id);
+CREATE INDEX idx_booking_booker_start_id ON booking(booker_id, start_lease DESC, id DESC);
+CREATE INDEX idx_booking_item_status_start ON booking(item_id, status, start_lease);
+CREATE INDEX idx_booking_item_start_id ON booking(item_id, start_lease DESC, id DESC);
+CREATE INDEX idx_booking_item_status_end ON booking(item_id, status, end_lease);
 CREATE INDEX idx_comments_item_id ON comments(item_id);
 CREATE INDEX idx_comments_author_id ON comments(author_id);
\ No newline at end of file